@@ -0,0 +1,53 @@
+package com.takeone.backend.benchmark;
+
+import com.takeone.backend.util.HashUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HashUtil.sha256 as used for username checks (short input), and on a longer
+ * value to separate digest cost from the per-call MessageDigest lookup and hex
+ * encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashUtilBenchmark {
+
+    @Param({"username", "long"})
+    public String input;
+
+    private String value;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        value = input.equals("username") ? "jane_doe_92" : "x".repeat(1024);
+        hash = HashUtil.sha256(value);
+    }
+
+    @Benchmark
+    public String sha256() {
+        return HashUtil.sha256(value);
+    }
+
+    @Benchmark
+    public boolean validateHash() {
+        return HashUtil.validateHash(value, hash);
+    }
+}
@@ -0,0 +1,139 @@
+package com.takeone.backend.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.takeone.backend.util.MaskingPatternLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of formatting one log line through the masking layout: the previous
+ * two-regex implementation vs the single-pass scanner, on lines as the
+ * application writes them (pattern from logback-spring.xml, MDC populated).
+ * Most lines carry no PII, so "relay" is the common case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskingPatternLayoutBenchmark {
+
+    private static final String PATTERN = "take-one-app-backend:%X{endpoint}:%X{traceId}:%C:%M:%msg%n";
+
+    @Param({"relay", "email", "phone"})
+    public String line;
+
+    private PatternLayout legacy;
+    private PatternLayout current;
+    private ILoggingEvent event;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = new LoggerContext();
+        legacy = start(new LegacyMaskingPatternLayout(), context);
+        current = start(new MaskingPatternLayout(), context);
+
+        String message = switch (line) {
+            case "relay" -> "Relayed message 3f2c9a71-8d4e-4b6a-9c1f-2e7d5b8a0c34 directly to online recipient 1048576";
+            case "email" -> "Creating new user for firebase uid Xq9vK2mPz7RtY4wB8nLc3dFh1Js5 with email jane.doe@example.com";
+            default -> "Sending OTP to +919876543210 for userId 1048576 (attempt 2 of 5)";
+        };
+        LoggingEvent loggingEvent = new LoggingEvent(
+                MaskingPatternLayoutBenchmark.class.getName(),
+                context.getLogger("com.takeone.backend.websocket.MessageRelayHandler"),
+                Level.INFO, message, null, null);
+        loggingEvent.setMDCPropertyMap(Map.of(
+                "endpoint", "/ws/messages",
+                "traceId", "a7c3e9f1-42b8-4d6e-8f0a-1b2c3d4e5f60"));
+        loggingEvent.setCallerData(new StackTraceElement[]{
+                new StackTraceElement("com.takeone.backend.websocket.MessageRelayHandler",
+                        "handleIncomingMessage", "MessageRelayHandler.java", 80)});
+        event = loggingEvent;
+
+        String expected = legacy.doLayout(event);
+        if (!expected.equals(current.doLayout(event))) {
+            throw new IllegalStateException("Layouts disagree on: " + expected);
+        }
+    }
+
+    @Benchmark
+    public String legacyLayout() {
+        return legacy.doLayout(event);
+    }
+
+    @Benchmark
+    public String singlePassLayout() {
+        return current.doLayout(event);
+    }
+
+    private static PatternLayout start(PatternLayout layout, LoggerContext context) {
+        layout.setContext(context);
+        layout.setPattern(PATTERN);
+        layout.start();
+        return layout;
+    }
+
+    /**
+     * The layout as it was before the single-pass scanner
+     */
+    static class LegacyMaskingPatternLayout extends PatternLayout {
+
+        private static final Pattern EMAIL_PATTERN = Pattern.compile("([\\w\\.\\-]+)@([\\w\\-]+)(\\.[\\w\\-]+)+");
+        private static final Pattern PHONE_PATTERN = Pattern.compile("\\+?\\d{10,12}");
+
+        @Override
+        public String doLayout(ILoggingEvent event) {
+            String message = super.doLayout(event);
+            if (message == null || message.isEmpty()) {
+                return message;
+            }
+            StringBuilder sb = new StringBuilder(message);
+            maskWithPattern(sb, EMAIL_PATTERN);
+            maskWithPattern(sb, PHONE_PATTERN);
+            return sb.toString();
+        }
+
+        private void maskWithPattern(StringBuilder sb, Pattern pattern) {
+            Matcher matcher = pattern.matcher(sb.toString());
+            int offset = 0;
+            while (matcher.find()) {
+                int start = matcher.start() + offset;
+                int end = matcher.end() + offset;
+                String original = sb.substring(start, end);
+                String masked = performMasking(original);
+                sb.replace(start, end, masked);
+                offset += (masked.length() - original.length());
+            }
+        }
+
+        private String performMasking(String value) {
+            String mask = "******";
+            if (value.contains("@")) {
+                int atIndex = value.indexOf("@");
+                if (atIndex > 2) {
+                    return value.charAt(0) + mask + value.substring(atIndex - 1);
+                }
+            }
+            return mask;
+        }
+    }
+}
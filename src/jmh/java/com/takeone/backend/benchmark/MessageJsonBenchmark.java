@@ -0,0 +1,103 @@
+package com.takeone.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.takeone.backend.dto.MessagePayload;
+import com.takeone.backend.dto.WSMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON work per relayed WebSocket message, with the ObjectMapper settings
+ * Spring Boot gives MessageRelayHandler: the frame envelope, the nested
+ * MessagePayload, and the full read-then-relay round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageJsonBenchmark {
+
+    // Size of the encrypted content before Base64
+    @Param({"256", "4096"})
+    public int contentBytes;
+
+    private ObjectMapper objectMapper;
+    private MessagePayload payload;
+    private String payloadJson;
+    private WSMessage envelope;
+    private String frame;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        byte[] content = new byte[contentBytes];
+        ThreadLocalRandom.current().nextBytes(content);
+        payload = MessagePayload.builder()
+                .messageId("7f3c9a1e-5b2d-4e8f-9a6c-1d2e3f4a5b6c")
+                .recipientId(1234567L)
+                .encryptedContent(Base64.getEncoder().encodeToString(content))
+                .type("TEXT")
+                .timestamp(System.currentTimeMillis())
+                .build();
+        payloadJson = objectMapper.writeValueAsString(payload);
+        envelope = WSMessage.builder()
+                .type("MESSAGE")
+                .payload(payloadJson)
+                .traceId("550e8400-e29b-41d4-a716-446655440000")
+                .build();
+        frame = objectMapper.writeValueAsString(envelope);
+    }
+
+    @Benchmark
+    public String writePayload() throws Exception {
+        return objectMapper.writeValueAsString(payload);
+    }
+
+    @Benchmark
+    public MessagePayload readPayload() throws Exception {
+        return objectMapper.readValue(payloadJson, MessagePayload.class);
+    }
+
+    @Benchmark
+    public String writeEnvelope() throws Exception {
+        return objectMapper.writeValueAsString(envelope);
+    }
+
+    @Benchmark
+    public WSMessage readEnvelope() throws Exception {
+        return objectMapper.readValue(frame, WSMessage.class);
+    }
+
+    /**
+     * What the handler does for one MESSAGE frame to an online recipient
+     */
+    @Benchmark
+    public String relayRoundTrip() throws Exception {
+        WSMessage incoming = objectMapper.readValue(frame, WSMessage.class);
+        MessagePayload parsed = objectMapper.readValue(incoming.getPayload(), MessagePayload.class);
+        WSMessage relay = WSMessage.builder()
+                .type("MESSAGE")
+                .payload(incoming.getPayload())
+                .traceId(incoming.getTraceId() != null ? incoming.getTraceId() : parsed.getTraceId())
+                .build();
+        return objectMapper.writeValueAsString(relay);
+    }
+}
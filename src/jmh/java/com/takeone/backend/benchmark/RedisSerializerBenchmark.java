@@ -0,0 +1,126 @@
+package com.takeone.backend.benchmark;
+
+import com.takeone.backend.config.RedisSerializers;
+import com.takeone.backend.dto.UserProfileResponse;
+import com.takeone.backend.entity.AccountType;
+import com.takeone.backend.service.UserStatusService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serialization: legacy default-typing JSON vs typed JSON vs typed Smile,
+ * for the cached values that are read on hot paths.
+ * serialize also reports the payload size as the secondary result
+ * serialize:payloadBytes, so sizes land in the same JMH JSON as the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    @Param({"legacy", "json", "smile"})
+    public String format;
+
+    @Param({"profile", "tokens", "status"})
+    public String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        value = switch (payload) {
+            case "profile" -> profile();
+            // Mutable list, as cached by DeviceTokenService (default typing cannot read List.of)
+            case "tokens" -> new ArrayList<>(List.of(
+                    "fcm-token-" + "a".repeat(140),
+                    "fcm-token-" + "b".repeat(140),
+                    "fcm-token-" + "c".repeat(140)));
+            default -> UserStatusService.UserStatus.builder()
+                    .userId(42L)
+                    .isOnline(true)
+                    .lastSeen(LocalDateTime.now())
+                    .build();
+        };
+
+        serializer = (RedisSerializer<Object>) switch (format) {
+            case "legacy" -> RedisSerializers.legacy();
+            case "json" -> payload.equals("tokens")
+                    ? RedisSerializers.json(List.class)
+                    : RedisSerializers.json(value.getClass());
+            default -> payload.equals("tokens")
+                    ? RedisSerializers.smile(RedisSerializers.listOf(String.class))
+                    : RedisSerializers.smile(value.getClass());
+        };
+
+        bytes = serializer.serialize(value);
+    }
+
+    /**
+     * Size of the serialized value in bytes, reported next to the time per operation
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize size) {
+        byte[] serialized = serializer.serialize(value);
+        size.payloadBytes = serialized.length;
+        return serialized;
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+
+    private static UserProfileResponse profile() {
+        LocalDateTime now = LocalDateTime.now();
+        return UserProfileResponse.builder()
+                .id(1234567L)
+                .uid("Xq9vK2mPz7RtY4wB8nLc3dFh1Js5")
+                .username("jane_doe_92")
+                .email("jane.doe@example.com")
+                .mobile("+919876543210")
+                .firstName("Jane")
+                .lastName("Doe")
+                .displayName("Jane Doe")
+                .dob("1992-04-17")
+                .company("Take One Studios")
+                .location("Mumbai, India")
+                .profilePictureUrl("https://cdn.example.com/profiles/1234567/avatar.jpg")
+                .accountType(AccountType.NEW_USER)
+                .isPortfolioCreated(true)
+                .isEmailVerified(true)
+                .isPhoneVerified(true)
+                .isActive(true)
+                .createdAt(now.minusDays(200))
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.takeone.backend.benchmark;
+
+import com.takeone.backend.service.SessionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session token generation (64 random bytes, Base64url) on login and refresh.
+ * All threads share one SecureRandom, so the contended run shows what a login
+ * burst costs compared to a single caller.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionTokenBenchmark {
+
+    @Benchmark
+    public String generateSecureToken() {
+        return SessionService.generateSecureToken();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateSecureTokenContended() {
+        return SessionService.generateSecureToken();
+    }
+}
@@ -0,0 +1,28 @@
+package com.takeone.backend.config;
+
+import com.google.firebase.auth.AuthErrorCode;
+import com.google.firebase.auth.FirebaseAuthException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+
+import java.util.function.Predicate;
+
+/**
+ * Decides which exceptions count against the Firebase circuit breakers.
+ * A rejected ID token is the caller's fault and says nothing about Firebase
+ * health, and a full bulkhead is our own back-pressure; everything else
+ * (timeouts, I/O, certificate fetch failures, FCM errors) does count.
+ * Referenced from resilience4j.circuitbreaker.configs.firebase.record-failure-predicate.
+ */
+public class FirebaseFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof BulkheadFullException) {
+            return false;
+        }
+        if (throwable instanceof FirebaseAuthException authException) {
+            return authException.getAuthErrorCode() == AuthErrorCode.CERTIFICATE_FETCH_FAILED;
+        }
+        return true;
+    }
+}
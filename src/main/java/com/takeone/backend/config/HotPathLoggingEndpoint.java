@@ -0,0 +1,55 @@
+package com.takeone.backend.config;
+
+import com.takeone.backend.util.HotPathLogger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * /actuator/hotpathlogging: switch full hot-path logging on or off for a user
+ * or a trace id, cluster-wide. Restricted to app.security.operator-uids in SecurityConfig.
+ * POST {"userId": 42, "minutes": 15} or {"traceId": "..."}; DELETE with the same
+ * query parameters; GET lists what is on for this node.
+ */
+@Component
+@Endpoint(id = "hotpathlogging")
+@RequiredArgsConstructor
+public class HotPathLoggingEndpoint {
+
+    private final HotPathLogger hotPathLogger;
+
+    @ReadOperation
+    public Map<String, Map<?, Long>> targets() {
+        return hotPathLogger.fullLoggingTargets();
+    }
+
+    @WriteOperation
+    public Map<String, Map<?, Long>> enable(@Nullable Long userId, @Nullable String traceId, @Nullable Integer minutes) {
+        Duration ttl = minutes != null ? Duration.ofMinutes(minutes) : null;
+        if (userId != null) {
+            hotPathLogger.enableForUser(userId, ttl);
+        }
+        if (traceId != null) {
+            hotPathLogger.enableForTrace(traceId, ttl);
+        }
+        return hotPathLogger.fullLoggingTargets();
+    }
+
+    @DeleteOperation
+    public Map<String, Map<?, Long>> disable(@Nullable Long userId, @Nullable String traceId) {
+        if (userId != null) {
+            hotPathLogger.disableForUser(userId);
+        }
+        if (traceId != null) {
+            hotPathLogger.disableForTrace(traceId);
+        }
+        return hotPathLogger.fullLoggingTargets();
+    }
+}
@@ -0,0 +1,27 @@
+package com.takeone.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.logging.hot-path")
+public class HotPathLoggingProperties {
+    /**
+     * Log one in this many occurrences of a hot-path event (1 logs all)
+     */
+    private int sampleEvery = 100;
+
+    /**
+     * Upper bound on sampled lines per event and second, whatever the volume
+     */
+    private int maxLinesPerSecond = 5;
+
+    /**
+     * How long full logging stays on for a user or trace id unless given
+     */
+    private Duration fullLoggingTtl = Duration.ofMinutes(30);
+}
@@ -0,0 +1,150 @@
+package com.takeone.backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * DataSource wrapper that times every executed statement into {@link QueryMetrics}
+ * Connections and statements are JDK proxies; only execute* calls and parameter
+ * setters are intercepted, everything else goes straight to the driver objects.
+ * Parameter values are kept only until the statement runs, for the slow-query
+ * log's shapes.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    static final Object NULL_PARAMETER = new Object();
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final ObjectProvider<QueryMetrics> queryMetricsProvider;
+    private volatile QueryMetrics queryMetrics;
+
+    public InstrumentedDataSource(DataSource target, ObjectProvider<QueryMetrics> queryMetricsProvider) {
+        super(target);
+        this.queryMetricsProvider = queryMetricsProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    // Resolved on first use: the MeterRegistry may not exist yet when the DataSource is created
+    private QueryMetrics metrics() {
+        QueryMetrics metrics = queryMetrics;
+        if (metrics == null) {
+            metrics = queryMetricsProvider.getObject();
+            queryMetrics = metrics;
+        }
+        return metrics;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("unwrap") && args[0] == Connection.class) {
+                return proxy;
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+
+            Class<?> type;
+            String sql = null;
+            if (result instanceof CallableStatement) {
+                type = CallableStatement.class;
+                sql = (String) args[0];
+            } else if (result instanceof PreparedStatement) {
+                type = PreparedStatement.class;
+                sql = (String) args[0];
+            } else if (result instanceof Statement) {
+                type = Statement.class;
+            } else {
+                return result;
+            }
+            return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler((Statement) result, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private Object[] parameters = new Object[8];
+        private int parameterCount;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                long start = System.nanoTime();
+                try {
+                    return InstrumentedDataSource.invoke(target, method, args);
+                } finally {
+                    metrics().record(executed, System.nanoTime() - start, parameters, parameterCount);
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                setParameter(index, name.equals("setNull") ? NULL_PARAMETER : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, 0, parameterCount, null);
+                parameterCount = 0;
+            }
+            return InstrumentedDataSource.invoke(target, method, args);
+        }
+
+        private void setParameter(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
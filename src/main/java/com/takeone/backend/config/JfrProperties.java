@@ -0,0 +1,47 @@
+package com.takeone.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.jfr")
+public class JfrProperties {
+    /**
+     * JDK settings the on-demand recording starts from: "default" (low overhead)
+     * or "profile"
+     */
+    private String configuration = "default";
+
+    /**
+     * Recording data kept on disk, oldest dropped first
+     */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    private DataSize maxSize = DataSize.ofMegabytes(250);
+
+    /**
+     * Where dumps are written before they are streamed; defaults to java.io.tmpdir
+     */
+    private String dumpDirectory;
+
+    /**
+     * Custom events shorter than these are not recorded
+     */
+    private Thresholds thresholds = new Thresholds();
+
+    @Data
+    public static class Thresholds {
+        private Duration sessionValidation = Duration.ofMillis(20);
+
+        private Duration relayFrame = Duration.ofMillis(10);
+
+        private Duration relayMessage = Duration.ofMillis(10);
+
+        private Duration pushSend = Duration.ofMillis(100);
+    }
+}
@@ -0,0 +1,168 @@
+package com.takeone.backend.config;
+
+import com.takeone.backend.util.FlightEvents;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/jfr: on-demand Flight Recorder recording with the custom hot-path
+ * events (see {@link FlightEvents}) on top of the JDK settings.
+ * Not exposed by default: enable it only on an internal management port. It is
+ * also restricted to app.security.operator-uids in SecurityConfig.
+ * POST {"minutes": 10} starts one (without minutes it runs until stopped, keeping
+ * the last app.jfr.max-age); GET /actuator/jfr/dump downloads what has been
+ * recorded so far; DELETE stops and discards it; GET shows its state.
+ * One recording per node.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrRecordingEndpoint {
+
+    private static final String RECORDING_NAME = "take1-on-demand";
+    private static final String DUMP = "dump";
+    // JDK events that capture environment variables, system properties and JVM
+    // arguments, where credentials and encryption keys live
+    private static final List<String> SECRET_BEARING_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.InitialSecurityProperty",
+            "jdk.JVMInformation");
+
+    private final JfrProperties jfrProperties;
+    private Recording recording;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("size", recording.getSize());
+        status.put("thresholds", jfrProperties.getThresholds());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Integer minutes) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        discard();
+
+        Recording next = new Recording(Configuration.getConfiguration(jfrProperties.getConfiguration()));
+        next.setName(RECORDING_NAME);
+        next.setToDisk(true);
+        next.setMaxAge(jfrProperties.getMaxAge());
+        next.setMaxSize(jfrProperties.getMaxSize().toBytes());
+        if (minutes != null && minutes > 0) {
+            next.setDuration(Duration.ofMinutes(minutes));
+        }
+        SECRET_BEARING_EVENTS.forEach(next::disable);
+        JfrProperties.Thresholds thresholds = jfrProperties.getThresholds();
+        next.enable(FlightEvents.SESSION_VALIDATION).withThreshold(thresholds.getSessionValidation());
+        next.enable(FlightEvents.RELAY_FRAME).withThreshold(thresholds.getRelayFrame());
+        next.enable(FlightEvents.RELAY_MESSAGE).withThreshold(thresholds.getRelayMessage());
+        next.enable(FlightEvents.PUSH_SEND).withThreshold(thresholds.getPushSend());
+        next.start();
+        recording = next;
+        log.info("Started JFR recording {} ({})", RECORDING_NAME,
+                minutes != null && minutes > 0 ? minutes + " minutes" : "until stopped");
+        return status();
+    }
+
+    /**
+     * Recorded data so far as a .jfr file; a running recording keeps running
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!DUMP.equals(action) || recording == null || recording.getState() == RecordingState.NEW
+                || recording.getState() == RecordingState.CLOSED) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile(dumpDirectory(), RECORDING_NAME + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        log.info("Dumped JFR recording {} ({} bytes)", RECORDING_NAME, Files.size(file));
+        return new WebEndpointResponse<>(new TemporaryFileResource(file));
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        discard();
+        return status();
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Path dumpDirectory() throws IOException {
+        String configured = jfrProperties.getDumpDirectory();
+        Path directory = Path.of(configured != null && !configured.isBlank()
+                ? configured : System.getProperty("java.io.tmpdir"));
+        return Files.createDirectories(directory);
+    }
+
+    /**
+     * Dump file deleted once it has been streamed to the client
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.takeone.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Two-level cache: an in-process Caffeine tier in front of a remote (Redis) cache.
+ * Local hits skip the network round trip and deserialization. Misses are loaded
+ * once per key per node (concurrent callers wait on the same load), and entries
+ * older than refreshAfter are reloaded by a single caller while the rest keep
+ * reading the current value. Writes and evictions are announced through the
+ * invalidation publisher so other nodes drop their local copy.
+ */
+@Slf4j
+public class NearCache implements Cache {
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Entry> local;
+    private final long refreshAfterNanos;
+    // Receives the changed key, or null when the whole cache was cleared
+    private final Consumer<String> invalidationPublisher;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private record Entry(Object value, long loadedAt) {
+    }
+
+    public NearCache(String name, Cache remote, NearCacheProperties properties,
+                     Consumer<String> invalidationPublisher) {
+        this.name = name;
+        this.remote = remote;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.refreshAfterNanos = properties.getRefreshAfter().toNanos();
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    public Cache getRemote() {
+        return remote;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, ?> getLocal() {
+        return local;
+    }
+
+    /**
+     * Value in the local tier only, without falling through to Redis
+     */
+    public Object getLocalValue(Object key) {
+        Entry entry = local.getIfPresent(localKey(key));
+        return entry != null ? entry.value() : null;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Entry entry = local.getIfPresent(localKey);
+        if (entry != null) {
+            return new SimpleValueWrapper(entry.value());
+        }
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(localKey, new Entry(wrapper.get(), System.nanoTime()));
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+
+        // Single-flight: Caffeine runs one mapping per key, concurrent callers block on it
+        Entry entry = local.get(localKey, k -> {
+            T value = remote.get(key, valueLoader);
+            return value != null ? new Entry(value, System.nanoTime()) : null;
+        });
+        if (entry == null) {
+            return null;
+        }
+
+        if (System.nanoTime() - entry.loadedAt() > refreshAfterNanos && refreshing.add(localKey)) {
+            try {
+                T fresh = valueLoader.call();
+                if (fresh != null) {
+                    remote.put(key, fresh);
+                    local.put(localKey, new Entry(fresh, System.nanoTime()));
+                    return fresh;
+                }
+            } catch (Exception e) {
+                log.warn("Early refresh of {}::{} failed, serving current value: {}", name, key, e.getMessage());
+            } finally {
+                refreshing.remove(localKey);
+            }
+        }
+        return (T) entry.value();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.invalidate(localKey(key));
+        invalidationPublisher.accept(localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        local.invalidate(localKey(key));
+        invalidationPublisher.accept(localKey(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        invalidationPublisher.accept(localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(localKey(key));
+        invalidationPublisher.accept(localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(null);
+    }
+
+    /**
+     * Drop the local copy only, on invalidation from another node
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    // Keys travel over pub/sub as strings, so the local tier is keyed the same way
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,97 @@
+package com.takeone.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager that puts a {@link NearCache} in front of the configured Redis
+ * caches and keeps the local tiers of all nodes coherent over the
+ * "cache:invalidate" channel. Every cache is transaction-aware, so writes and
+ * evictions made inside a transaction apply to both tiers after commit.
+ */
+@Slf4j
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    static final String INVALIDATION_CHANNEL = "cache:invalidate";
+    private static final char SEPARATOR = '|';
+
+    private final CacheManager remoteCacheManager;
+    private final NearCacheProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    // Messages published by this node are ignored on receipt
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NearCache> nearCaches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager remoteCacheManager,
+                            NearCacheProperties properties,
+                            StringRedisTemplate stringRedisTemplate,
+                            RedisMessageListenerContainer listenerContainer) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            Cache remote = remoteCacheManager.getCache(n);
+            if (remote == null) {
+                return null;
+            }
+            if (!properties.getCaches().contains(n)) {
+                return new TransactionAwareCacheDecorator(remote);
+            }
+            NearCache nearCache = new NearCache(n, remote, properties, key -> publishInvalidation(n, key));
+            nearCaches.put(n, nearCache);
+            return new TransactionAwareCacheDecorator(nearCache);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // Format: nodeId|cacheName[|key], no key means the cache was cleared
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf(SEPARATOR);
+        if (first < 0 || body.substring(0, first).equals(nodeId)) {
+            return;
+        }
+        int second = body.indexOf(SEPARATOR, first + 1);
+        String cacheName = second < 0 ? body.substring(first + 1) : body.substring(first + 1, second);
+        String key = second < 0 ? null : body.substring(second + 1);
+
+        NearCache nearCache = nearCaches.get(cacheName);
+        if (nearCache != null) {
+            nearCache.invalidateLocal(key);
+        }
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String body = nodeId + SEPARATOR + cacheName + (key != null ? SEPARATOR + key : "");
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, body);
+        } catch (Exception e) {
+            // Other nodes fall back to the local TTL
+            log.warn("Failed to publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
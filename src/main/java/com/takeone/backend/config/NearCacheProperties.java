@@ -0,0 +1,35 @@
+package com.takeone.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.near")
+public class NearCacheProperties {
+    /**
+     * Caches that get an in-process tier in front of Redis
+     */
+    private Set<String> caches = new HashSet<>(Set.of("profiles"));
+
+    /**
+     * Maximum entries per local cache
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Upper bound on local staleness if an invalidation message is missed
+     */
+    private Duration ttl = Duration.ofMinutes(2);
+
+    /**
+     * Age after which the next read reloads the entry in place while other
+     * readers keep getting the current value. Must be shorter than the TTL.
+     */
+    private Duration refreshAfter = Duration.ofSeconds(90);
+}
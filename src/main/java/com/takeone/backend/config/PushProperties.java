@@ -0,0 +1,100 @@
+package com.takeone.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.push")
+public class PushProperties {
+    /**
+     * Window during which new-message pushes to the same recipient are collapsed
+     * into a single outbox row. Zero sends on the next dispatcher run.
+     */
+    private Duration coalesceWindow = Duration.ofSeconds(3);
+
+    /**
+     * FCM collapse key / APNs collapse id used for new-message notifications, so a
+     * device only ever shows the latest one.
+     */
+    private String collapseKey = "new_message";
+
+    /**
+     * Push gateway implementation: "firebase" or "local" (load-test stand-in)
+     */
+    private String gateway = "firebase";
+
+    /**
+     * Behaviour of the local stand-in gateway
+     */
+    private Local local = new Local();
+
+    /**
+     * Dispatch of the push outbox
+     */
+    private Outbox outbox = new Outbox();
+
+    @Data
+    public static class Local {
+        /**
+         * Simulated round-trip latency per send
+         */
+        private Duration latency = Duration.ofMillis(20);
+
+        /**
+         * Random extra latency added on top, between zero and this value
+         */
+        private Duration latencyJitter = Duration.ofMillis(10);
+
+        /**
+         * Probability (0-1) that a whole send fails
+         */
+        private double errorRate = 0.0;
+
+        /**
+         * Probability (0-1) that an individual token is reported as unregistered
+         */
+        private double invalidTokenRate = 0.0;
+
+        /**
+         * Tokens starting with this prefix are always reported as unregistered
+         */
+        private String invalidTokenPrefix = "invalid-";
+    }
+
+    @Data
+    public static class Outbox {
+        /**
+         * Rows claimed per dispatcher run
+         */
+        private int batchSize = 100;
+
+        /**
+         * Attempts before a row is moved to DEAD
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Backoff after the first failure, doubled on every further attempt
+         */
+        private Duration initialBackoff = Duration.ofSeconds(2);
+
+        /**
+         * Upper bound for the backoff between attempts
+         */
+        private Duration maxBackoff = Duration.ofMinutes(10);
+
+        /**
+         * How long a claimed row stays IN_FLIGHT before another dispatcher may retake it
+         */
+        private Duration lease = Duration.ofMinutes(1);
+
+        /**
+         * How long SENT and DEAD rows are kept before being purged
+         */
+        private Duration retention = Duration.ofDays(1);
+    }
+}
@@ -0,0 +1,180 @@
+package com.takeone.backend.config;
+
+import com.takeone.backend.util.RequestTimings;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records JDBC statement timings (see InstrumentedDataSource)
+ * - db.statement{repository, method, type}: every statement, tagged with the
+ * Spring Data repository method that issued it, "none" outside repositories
+ * - db.statements.per.unit{kind, name}: statements per HTTP request / WebSocket
+ * frame; a unit above the warn threshold is logged as a likely N+1
+ * - slow statements are logged with bind-parameter shapes, never values
+ */
+@Slf4j
+@Component
+public class QueryMetrics {
+
+    private static final String NONE = "none";
+    private static final ThreadLocal<RepositoryMethod> CURRENT_METHOD = new ThreadLocal<>();
+    private static final ThreadLocal<Unit> CURRENT_UNIT = new ThreadLocal<>();
+    private static final RepositoryMethod NO_METHOD = new RepositoryMethod(NONE, NONE);
+    private static final String[] STATEMENT_TYPES = {"select", "insert", "update", "delete"};
+
+    private final MeterRegistry meterRegistry;
+    private final QueryMetricsProperties properties;
+    private final long slowQueryNanos;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry meterRegistry, QueryMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.slowQueryNanos = properties.getSlowQueryThreshold().toNanos();
+    }
+
+    /**
+     * Mark the repository method running on this thread
+     *
+     * @return the previous one, to hand back to {@link #exitRepositoryMethod}
+     */
+    static RepositoryMethod enterRepositoryMethod(String repository, String method) {
+        RepositoryMethod previous = CURRENT_METHOD.get();
+        CURRENT_METHOD.set(new RepositoryMethod(repository, method));
+        return previous;
+    }
+
+    static void exitRepositoryMethod(RepositoryMethod previous) {
+        if (previous == null) {
+            CURRENT_METHOD.remove();
+        } else {
+            CURRENT_METHOD.set(previous);
+        }
+    }
+
+    /**
+     * Start counting statements for an HTTP request or WebSocket frame on this thread
+     */
+    public void beginUnit() {
+        CURRENT_UNIT.set(new Unit());
+    }
+
+    /**
+     * Stop counting and record the unit's statement count
+     *
+     * @param kind "http" or "websocket"
+     * @param name bounded name: URI pattern or frame type
+     */
+    public void endUnit(String kind, String name) {
+        Unit unit = CURRENT_UNIT.get();
+        if (unit == null) {
+            return;
+        }
+        CURRENT_UNIT.remove();
+
+        DistributionSummary.builder("db.statements.per.unit")
+                .tag("kind", kind)
+                .tag("name", name)
+                .register(meterRegistry)
+                .record(unit.total);
+
+        if (unit.total > properties.getStatementsWarnThreshold()) {
+            Map.Entry<String, Integer> top = unit.byMethod.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .orElse(null);
+            log.warn("{} {} issued {} statements, possible N+1 (most from {}: {})",
+                    kind, name, unit.total, top != null ? top.getKey() : NONE, top != null ? top.getValue() : 0);
+        }
+    }
+
+    void record(String sql, long nanos, Object[] parameters, int parameterCount) {
+        RequestTimings.record(RequestTimings.Backend.DB, nanos);
+
+        RepositoryMethod method = CURRENT_METHOD.get();
+        if (method == null) {
+            method = NO_METHOD;
+        }
+        String type = statementType(sql);
+        RepositoryMethod tags = method;
+        timers.computeIfAbsent(method.repository + '.' + method.method + '.' + type,
+                        key -> Timer.builder("db.statement")
+                                .tag("repository", tags.repository)
+                                .tag("method", tags.method)
+                                .tag("type", type)
+                                .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        Unit unit = CURRENT_UNIT.get();
+        if (unit != null) {
+            unit.total++;
+            unit.byMethod.merge(method.repository + '.' + method.method, 1, Integer::sum);
+        }
+
+        if (nanos >= slowQueryNanos) {
+            log.warn("Slow query ({} ms) from {}.{}: {} params {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                    method.repository, method.method, abbreviate(sql), parameterShapes(parameters, parameterCount));
+        }
+    }
+
+    private String abbreviate(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String compact = sql.replaceAll("\\s+", " ").trim();
+        int max = properties.getMaxSqlLength();
+        return compact.length() > max ? compact.substring(0, max) + "..." : compact;
+    }
+
+    // "[Long, String(24), null]": enough to spot IN-list growth or odd types without logging PII
+    static String parameterShapes(Object[] parameters, int count) {
+        StringBuilder shapes = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                shapes.append(", ");
+            }
+            Object value = parameters[i];
+            if (value == null || value == InstrumentedDataSource.NULL_PARAMETER) {
+                shapes.append("null");
+            } else if (value instanceof CharSequence text) {
+                shapes.append("String(").append(text.length()).append(')');
+            } else if (value instanceof byte[] bytes) {
+                shapes.append("byte[").append(bytes.length).append(']');
+            } else {
+                shapes.append(value.getClass().getSimpleName());
+            }
+        }
+        return shapes.append(']').toString();
+    }
+
+    private static String statementType(String sql) {
+        if (sql == null) {
+            return "batch";
+        }
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        for (String type : STATEMENT_TYPES) {
+            if (sql.regionMatches(true, start, type, 0, type.length())) {
+                return type;
+            }
+        }
+        return "other";
+    }
+
+    record RepositoryMethod(String repository, String method) {
+    }
+
+    private static final class Unit {
+        private int total;
+        private final Map<String, Integer> byMethod = new HashMap<>();
+    }
+}
@@ -0,0 +1,65 @@
+package com.takeone.backend.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires statement timing: the application DataSource is wrapped in an
+ * InstrumentedDataSource and every Spring Data repository gets an outermost
+ * advice that names the repository method for the statements it issues
+ * (including the flush on commit of its own transaction).
+ * Repository method latency itself is Spring Boot's
+ * spring.data.repository.invocations timer.
+ */
+@Configuration
+public class QueryMetricsConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<QueryMetrics> queryMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, queryMetrics);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodTaggingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                                    repositoryMethodInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor repositoryMethodInterceptor(String repository) {
+        return invocation -> {
+            QueryMetrics.RepositoryMethod previous =
+                    QueryMetrics.enterRepositoryMethod(repository, invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                QueryMetrics.exitRepositoryMethod(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.takeone.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.db.metrics")
+public class QueryMetricsProperties {
+    /**
+     * Statements running at least this long are logged with their SQL and the
+     * shapes (type and length, never values) of their bind parameters
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    /**
+     * HTTP requests or WebSocket frames issuing more statements than this are
+     * logged as a likely N+1
+     */
+    private int statementsWarnThreshold = 20;
+
+    /**
+     * Longest SQL text written to the slow-query log
+     */
+    private int maxSqlLength = 500;
+}
@@ -1,19 +1,23 @@
 package com.takeone.backend.config;
 
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.takeone.backend.dto.UserProfileResponse;
+import com.takeone.backend.service.UserStatusService;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -28,6 +32,14 @@ import java.time.Duration;
 @EnableCaching
 public class RedisConfig {
 
+    /**
+     * Per-request Redis timing (Server-Timing header, request histograms)
+     */
+    @Bean
+    public static TimedRedisConnections timedRedisConnections() {
+        return new TimedRedisConnections();
+    }
+
     @Bean
     @Primary
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -40,7 +52,7 @@ public class RedisConfig {
         template.setHashKeySerializer(stringSerializer);
 
         // Use JSON serializer for values
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper());
+        GenericJackson2JsonRedisSerializer jsonSerializer = RedisSerializers.legacy();
         template.setValueSerializer(jsonSerializer);
         template.setHashValueSerializer(jsonSerializer);
 
@@ -50,44 +62,102 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Presence entries ("user:status:*"), stored as typed Smile
+     */
+    @Bean
+    public RedisTemplate<String, UserStatusService.UserStatus> userStatusRedisTemplate(
+            RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, UserStatusService.UserStatus> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializers.smile(UserStatusService.UserStatus.class));
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Direct access to "profiles" cache entries, for multi-gets the cache abstraction
+     * cannot do; must use the same value serializer as the cache
+     */
+    @Bean
+    public RedisTemplate<String, UserProfileResponse> profileCacheRedisTemplate(
+            RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, UserProfileResponse> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializers.smile(UserProfileResponse.class));
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Pub/sub listener container for cross-node notifications
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * Redis-backed cache manager, with a local near-cache tier for the caches
+     * listed in app.cache.near.caches (see {@link NearCacheManager})
+     */
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     NearCacheProperties nearCacheProperties,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisMessageListenerContainer redisMessageListenerContainer) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1)) // Default 1 hour TTL
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
                 )
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(
-                                new GenericJackson2JsonRedisSerializer(objectMapper())
-                        )
+                        RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializers.legacy())
                 )
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .withCacheConfiguration("sessions", config.entryTtl(Duration.ofDays(30)))
                 .withCacheConfiguration("users", config.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("profiles", config.entryTtl(Duration.ofMinutes(15)))
-                .transactionAware()
+                // Hot caches: typed Smile instead of default-typing JSON
+                .withCacheConfiguration("profiles", config.entryTtl(Duration.ofMinutes(15))
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                                RedisSerializers.smile(UserProfileResponse.class))))
+                .withCacheConfiguration("deviceTokens", config.entryTtl(Duration.ofHours(1))
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                                RedisSerializers.smile(RedisSerializers.listOf(String.class)))))
+                .enableStatistics() // Exposes cache.gets{result=hit|miss} per cache via actuator
                 .build();
-    }
+        // Not a bean itself - initialize the configured caches here
+        redisCacheManager.afterPropertiesSet();
 
-    private ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        // Corrected method signature for Jackson 2.10+
-        BasicPolymorphicTypeValidator ptv = BasicPolymorphicTypeValidator.builder()
-                .allowIfBaseType(Object.class)
-                .build();
+        // Transaction awareness is applied by the near-cache manager, around both tiers
+        return new NearCacheManager(redisCacheManager, nearCacheProperties,
+                stringRedisTemplate, redisMessageListenerContainer);
+    }
 
-        mapper.activateDefaultTyping(
-                ptv,
-                ObjectMapper.DefaultTyping.NON_FINAL,
-                JsonTypeInfo.As.PROPERTY
-        );
-        mapper.findAndRegisterModules();
-        return mapper;
+    /**
+     * Cache metrics for near caches: the Redis tier under the cache name and the
+     * local tier under "<name>.local"
+     */
+    @Bean
+    public CacheMeterBinderProvider<NearCache> nearCacheMeterBinderProvider() {
+        return (cache, tags) -> {
+            MeterBinder local = new CaffeineCacheMetrics<>(cache.getLocal(), cache.getName() + ".local", tags);
+            MeterBinder remote = cache.getRemote() instanceof RedisCache redisCache
+                    ? new RedisCacheMetrics(redisCache, tags)
+                    : null;
+            return registry -> {
+                local.bindTo(registry);
+                if (remote != null) {
+                    remote.bindTo(registry);
+                }
+            };
+        };
     }
-}
\ No newline at end of file
+}
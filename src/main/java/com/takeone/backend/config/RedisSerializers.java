@@ -0,0 +1,145 @@
+package com.takeone.backend.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Redis value serializers
+ * Typed serializers bind each key space / cache to one Java type, so values carry
+ * no class names and deserialize without polymorphic type resolution. The Smile
+ * (binary JSON) variant is used for hot caches; it still reads values written in
+ * the legacy default-typing JSON format, so existing keys keep working until
+ * they expire or are rewritten.
+ */
+public final class RedisSerializers {
+
+    // Every Smile document starts with ":)\n"
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private static final ObjectMapper JSON_MAPPER = configure(new ObjectMapper())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final ObjectMapper SMILE_MAPPER = configure(new ObjectMapper(new SmileFactory()));
+    private static final GenericJackson2JsonRedisSerializer LEGACY =
+            new GenericJackson2JsonRedisSerializer(legacyObjectMapper());
+
+    private RedisSerializers() {
+    }
+
+    /**
+     * Typed JSON for the given type; unknown properties (e.g. a legacy "@class") are ignored
+     */
+    public static <T> RedisSerializer<T> json(Class<T> type) {
+        return new Jackson2JsonRedisSerializer<>(JSON_MAPPER, type);
+    }
+
+    /**
+     * Typed Smile for the given type
+     */
+    public static <T> RedisSerializer<T> smile(Class<T> type) {
+        return smile(SMILE_MAPPER.constructType(type));
+    }
+
+    /**
+     * Typed Smile for a generic type, e.g. {@code listOf(String.class)}
+     */
+    public static <T> RedisSerializer<T> smile(JavaType type) {
+        return new SmileRedisSerializer<>(new Jackson2JsonRedisSerializer<>(SMILE_MAPPER, type), type.getRawClass());
+    }
+
+    public static JavaType listOf(Class<?> elementType) {
+        return SMILE_MAPPER.getTypeFactory().constructCollectionType(java.util.List.class, elementType);
+    }
+
+    /**
+     * Default-typing JSON serializer used before typed serializers were introduced
+     * Still backs the generic RedisTemplate and caches without a typed serializer.
+     */
+    public static GenericJackson2JsonRedisSerializer legacy() {
+        return LEGACY;
+    }
+
+    static ObjectMapper legacyObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Corrected method signature for Jackson 2.10+
+        BasicPolymorphicTypeValidator ptv = BasicPolymorphicTypeValidator.builder()
+                .allowIfBaseType(Object.class)
+                .build();
+
+        mapper.activateDefaultTyping(
+                ptv,
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        mapper.findAndRegisterModules();
+        return mapper;
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.registerModule(new JavaTimeModule());
+        // Tolerate fields added or removed between deployments
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    /**
+     * Smile serializer that falls back to the legacy format for values written
+     * before the switch
+     */
+    private static final class SmileRedisSerializer<T> implements RedisSerializer<T> {
+
+        private final Jackson2JsonRedisSerializer<T> delegate;
+        private final Class<?> rawType;
+
+        private SmileRedisSerializer(Jackson2JsonRedisSerializer<T> delegate, Class<?> rawType) {
+            this.delegate = delegate;
+            this.rawType = rawType;
+        }
+
+        @Override
+        public byte[] serialize(T value) throws SerializationException {
+            return delegate.serialize(value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T deserialize(byte[] bytes) throws SerializationException {
+            if (bytes == null || bytes.length == 0) {
+                return null;
+            }
+            if (isSmile(bytes)) {
+                return delegate.deserialize(bytes);
+            }
+            Object legacyValue = LEGACY.deserialize(bytes);
+            return rawType.isInstance(legacyValue) ? (T) legacyValue : null;
+        }
+
+        @Override
+        public Class<?> getTargetType() {
+            return rawType;
+        }
+
+        private static boolean isSmile(byte[] bytes) {
+            if (bytes.length < SMILE_HEADER.length) {
+                return false;
+            }
+            for (int i = 0; i < SMILE_HEADER.length; i++) {
+                if (bytes[i] != SMILE_HEADER[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.takeone.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+    /**
+     * Route read-only transactions to the replica. When false everything uses
+     * the spring.datasource primary as before.
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * Connection pool size of the replica
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * Replication lag above which reads go back to the primary
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * After a user's write commits, that user's reads stay on the primary for
+     * this long so they see their own changes. Should exceed the usual lag.
+     */
+    private Duration stickiness = Duration.ofSeconds(10);
+}
@@ -0,0 +1,147 @@
+package com.takeone.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.takeone.backend.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends @Transactional(readOnly = true) work to the replica and everything else
+ * to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy so the connection is taken at
+ * the first statement, once the transaction's read-only flag is known.
+ * Reads fall back to the primary while the replica lags more than max-lag (see
+ * ReplicaLagMonitor) and, for a short window after a user's write commits, for
+ * that user's requests. Stickiness is per node and needs a SecurityContext, so
+ * reads whose result outlives the request (shared cache fills, WebSocket replay)
+ * run inside {@link #onPrimary} instead.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final Duration maxLag;
+    private final Cache<Long, Boolean> recentWriters;
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter stickyCounter;
+    private final Counter pinnedCounter;
+
+    // Pessimistic until the first lag check succeeds
+    private volatile boolean replicaAvailable = false;
+    private volatile double lagSeconds = -1;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReplicaProperties properties, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.maxLag = properties.getMaxLag();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getStickiness())
+                .maximumSize(100_000)
+                .build();
+        this.primaryCounter = meterRegistry.counter("datasource.routing", "target", PRIMARY, "reason", "write");
+        this.replicaCounter = meterRegistry.counter("datasource.routing", "target", REPLICA, "reason", "read");
+        this.stickyCounter = meterRegistry.counter("datasource.routing", "target", PRIMARY, "reason", "sticky");
+        this.pinnedCounter = meterRegistry.counter("datasource.routing", "target", PRIMARY, "reason", "pinned");
+        Gauge.builder("datasource.replica.lag", this, ds -> ds.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryCounter.increment();
+            if (userId != null) {
+                rememberWrite(userId);
+            }
+            return PRIMARY;
+        }
+
+        if (PINNED.get() != null) {
+            pinnedCounter.increment();
+            return PRIMARY;
+        }
+
+        if (!replicaAvailable || (userId != null && recentWriters.getIfPresent(userId) != null)) {
+            stickyCounter.increment();
+            return PRIMARY;
+        }
+
+        replicaCounter.increment();
+        return REPLICA;
+    }
+
+    /**
+     * Run read-only work on the primary
+     * For reads that must see the latest commit whoever wrote it: values cached
+     * cluster-wide, or data read outside an HTTP request. Only affects connections
+     * taken inside work; without a replica it is a no-op.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean outermost = PINNED.get() == null;
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outermost) {
+                PINNED.remove();
+            }
+        }
+    }
+
+    /**
+     * Record the latest replication lag; null means unknown (replication stopped
+     * or the replica unreachable), which keeps reads on the primary
+     */
+    public void updateLag(Duration lag) {
+        boolean available = lag != null && lag.compareTo(maxLag) <= 0;
+        if (available != replicaAvailable) {
+            log.warn("Replica reads {} (lag: {})", available ? "resumed" : "suspended",
+                    lag != null ? lag.toSeconds() + "s" : "unknown");
+        }
+        lagSeconds = lag != null ? lag.toMillis() / 1000.0 : -1;
+        replicaAvailable = available;
+    }
+
+    // Stick the user to the primary from the commit on, not from the first statement
+    private void rememberWrite(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
@@ -2,10 +2,13 @@ package com.takeone.backend.config;
 
 import com.takeone.backend.security.RequestTraceFilter;
 import com.takeone.backend.security.SessionAuthenticationFilter;
+import com.takeone.backend.security.UserPrincipal;
 import com.takeone.backend.service.SessionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -18,6 +21,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
@@ -28,7 +32,8 @@ public class SecurityConfig {
     private final RequestTraceFilter requestTraceFilter;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${app.security.operator-uids:}") Set<String> operatorUids) throws Exception {
         http
                 // 1. Disable CSRF for the entire API
                 .csrf(AbstractHttpConfigurer::disable)
@@ -36,6 +41,13 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Operational switches: operators listed in config only, never a profile field
+                        .requestMatchers("/actuator/hotpathlogging", "/actuator/hotpathlogging/**",
+                                "/actuator/jfr", "/actuator/jfr/**")
+                        .access((authentication, context) -> new AuthorizationDecision(
+                                authentication.get().getPrincipal() instanceof UserPrincipal principal
+                                        && principal.getUid() != null
+                                        && operatorUids.contains(principal.getUid())))
                         // 2. Keep only truly PUBLIC endpoints here
                         .requestMatchers(
                                 "/api/auth/**",      // Catch-all for token, refresh, etc.
@@ -70,7 +82,7 @@ public class SecurityConfig {
                 "*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Session-Token"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Session-Token", "Server-Timing"));
         configuration.setAllowCredentials(false); // Set to true if using credentials
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,89 @@
+package com.takeone.backend.config;
+
+import com.takeone.backend.util.RequestTimings;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times Redis commands into the current request's {@link RequestTimings}
+ * The connection factory is proxied so every connection it hands out (templates,
+ * cache writer, listener container) is too; command sub-interfaces such as
+ * stringCommands() are proxied in turn. Lettuce calls block the calling thread,
+ * so the time measured is what the request waited for.
+ * Outside an HTTP request (WebSocket relay, schedulers, listeners) connections
+ * and command groups are handed out unwrapped, so nothing is allocated there.
+ */
+public class TimedRedisConnections implements BeanPostProcessor {
+
+    private static final String CONNECTION_PACKAGE = RedisConnection.class.getPackageName();
+    // Connection housekeeping, not commands
+    private static final Set<String> UNTIMED = Set.of(
+            "close", "isClosed", "getNativeConnection", "isQueueing", "isPipelined", "openPipeline",
+            "isSubscribed", "getSubscription", "getSentinelConnection",
+            "toString", "hashCode", "equals");
+    private static final MethodInterceptor TIMING = TimedRedisConnections::time;
+    private static final Map<Class<?>, Class<?>[]> INTERFACES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Boolean> COMMAND_GROUPS = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof RedisConnectionFactory factory && !(bean instanceof SpringProxy)) {
+            ProxyFactory proxyFactory = new ProxyFactory(factory);
+            proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                Object result = invocation.proceed();
+                return result instanceof RedisConnection connection && RequestTimings.current() != null
+                        ? timed(connection)
+                        : result;
+            });
+            return proxyFactory.getProxy(factory.getClass().getClassLoader());
+        }
+        return bean;
+    }
+
+    private static Object timed(Object target) {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(target);
+        proxyFactory.setInterfaces(INTERFACES.computeIfAbsent(target.getClass(), ClassUtils::getAllInterfacesForClass));
+        proxyFactory.addAdvice(TIMING);
+        return proxyFactory.getProxy(target.getClass().getClassLoader());
+    }
+
+    private static Object time(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        // A connection can outlive the request it was opened in
+        if (RequestTimings.current() == null) {
+            return invocation.proceed();
+        }
+        if (COMMAND_GROUPS.computeIfAbsent(method.getReturnType(), TimedRedisConnections::isCommandGroup)) {
+            Object group = invocation.proceed();
+            return group != null ? timed(group) : null;
+        }
+        if (UNTIMED.contains(method.getName())) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            RequestTimings.record(RequestTimings.Backend.REDIS, System.nanoTime() - start);
+        }
+    }
+
+    // RedisKeyCommands, RedisStringCommands, ...
+    private static boolean isCommandGroup(Class<?> type) {
+        return type.isInterface()
+                && type.getPackageName().equals(CONNECTION_PACKAGE)
+                && type.getSimpleName().endsWith("Commands");
+    }
+}
@@ -7,6 +7,8 @@ import com.takeone.backend.entity.Session;
 import com.takeone.backend.entity.User;
 import com.takeone.backend.service.AuthService;
 import com.takeone.backend.service.SessionService;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -60,6 +62,14 @@ public class AuthController {
             log.info("User authenticated successfully: {}", user.getUsername());
             return ResponseEntity.ok(response);
 
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // Firebase Auth degraded: fail fast instead of holding the request thread
+            log.warn("Authentication rejected, Firebase Auth unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(AuthResponse.builder()
+                            .error("Authentication temporarily unavailable, please retry shortly")
+                            .build());
+
         } catch (Exception e) {
             log.error("Authentication failed: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
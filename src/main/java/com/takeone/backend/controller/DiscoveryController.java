@@ -0,0 +1,47 @@
+package com.takeone.backend.controller;
+
+import com.takeone.backend.dto.DiscoverySearchResponse;
+import com.takeone.backend.entity.AccountType;
+import com.takeone.backend.service.DiscoveryIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/discovery")
+@RequiredArgsConstructor
+public class DiscoveryController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final DiscoveryIndexService discoveryIndexService;
+
+    /**
+     * Search users of one account type by name/username prefix and location
+     * Served from the in-memory discovery index; page with the returned nextCursor
+     */
+    @GetMapping("/users")
+    public ResponseEntity<?> searchUsers(
+            @RequestParam(defaultValue = "CREATOR") AccountType accountType,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT));
+        }
+        try {
+            DiscoverySearchResponse response = discoveryIndexService.search(accountType, q, location, cursor, limit);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -2,9 +2,14 @@ package com.takeone.backend.controller;
 
 import com.takeone.backend.dto.CheckUsernameRequest;
 import com.takeone.backend.dto.CheckUsernameResponse;
+import com.takeone.backend.dto.CheckUsernamesRequest;
+import com.takeone.backend.dto.CheckUsernamesResponse;
+import com.takeone.backend.dto.PublicProfilesRequest;
+import com.takeone.backend.dto.PublicProfilesResponse;
 import com.takeone.backend.dto.UserProfileRequest;
 import com.takeone.backend.dto.UserProfileResponse;
 import com.takeone.backend.security.UserPrincipal;
+import com.takeone.backend.service.PublicProfileService;
 import com.takeone.backend.service.UserProfileService;
 import com.takeone.backend.service.UsernameService;
 import jakarta.validation.Valid;
@@ -23,6 +28,7 @@ public class UserProfileController {
 
     private final UserProfileService userProfileService;
     private final UsernameService usernameService;
+    private final PublicProfileService publicProfileService;
 
     /**
      * Check if username is available (unique)
@@ -42,6 +48,21 @@ public class UserProfileController {
                 .build());
     }
 
+    /**
+     * Check many usernames in one call and/or get suggestions for a base name
+     * Answered with one Redis MGET and one IN query, available names ranked best first
+     */
+    @PostMapping("/check-usernames")
+    public ResponseEntity<CheckUsernamesResponse> checkUsernames(
+            @Valid @RequestBody CheckUsernamesRequest request
+    ) {
+        log.info("Checking {} username candidates, base: {}",
+                request.getCandidates() != null ? request.getCandidates().size() : 0, request.getBase());
+
+        return ResponseEntity.ok(usernameService.checkUsernames(
+                request.getCandidates(), request.getBase(), request.getLimit()));
+    }
+
     /**
      * Get user profile
      * Returns complete user profile with cached data
@@ -57,6 +78,22 @@ public class UserProfileController {
         return ResponseEntity.ok(profile);
     }
 
+    /**
+     * Public profile cards for many users at once (chat lists, discovery)
+     * Display name, avatar and account type only - no PII
+     */
+    @PostMapping("/profiles/public")
+    public ResponseEntity<PublicProfilesResponse> getPublicProfiles(
+            @Valid @RequestBody PublicProfilesRequest request
+    ) {
+        log.debug("Resolving public profiles: {} ids, {} usernames",
+                request.getUserIds() != null ? request.getUserIds().size() : 0,
+                request.getUsernames() != null ? request.getUsernames().size() : 0);
+
+        return ResponseEntity.ok(publicProfileService.getPublicProfiles(
+                request.getUserIds(), request.getUsernames()));
+    }
+
     /**
      * Create user profile (first time setup)
      * Called after initial Firebase authentication
@@ -114,4 +151,33 @@ public class UserProfileController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Partially update user profile
+     * Only the fields present in the body are changed
+     */
+    @PatchMapping("/profile")
+    public ResponseEntity<UserProfileResponse> patchProfile(
+            @Valid @RequestBody UserProfileRequest request,
+            @AuthenticationPrincipal UserPrincipal currentUser
+    ) {
+        log.info("Patching profile for user: {}", currentUser.getUsername());
+
+        try {
+            UserProfileResponse profile = userProfileService.patchUserProfile(
+                    currentUser.getId(),
+                    request
+            );
+
+            return ResponseEntity.ok(profile);
+
+        } catch (IllegalArgumentException e) {
+            log.error("Profile patch failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (Exception e) {
+            log.error("Unexpected error during profile patch: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.takeone.backend.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch Username Check Request
+ * Either explicit candidates, a base name to expand into suggestions, or both
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckUsernamesRequest {
+
+    @Size(max = 50, message = "At most 50 candidates per request")
+    private List<@Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
+            @Pattern(regexp = "^[a-z0-9_]+$", message = "Username can only contain lowercase letters, numbers, and underscores")
+            String> candidates;
+
+    // Free-form base name (e.g. display name); normalized server-side
+    @Size(max = 50, message = "Base name must be at most 50 characters")
+    private String base;
+
+    // Maximum number of available suggestions generated from base to return
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 20, message = "Limit must be at most 20")
+    private Integer limit;
+
+    @AssertTrue(message = "Either candidates or base is required")
+    private boolean isCandidatesOrBasePresent() {
+        return (candidates != null && !candidates.isEmpty()) || (base != null && !base.isBlank());
+    }
+}
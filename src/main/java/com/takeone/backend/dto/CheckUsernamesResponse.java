@@ -0,0 +1,22 @@
+package com.takeone.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch Username Check Response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckUsernamesResponse {
+    // Available usernames, best first
+    private List<String> available;
+    // Explicit candidates that are already taken
+    private List<String> taken;
+}
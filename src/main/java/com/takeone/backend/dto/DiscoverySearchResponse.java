@@ -0,0 +1,22 @@
+package com.takeone.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Discovery Search Response
+ * One page of results; pass nextCursor back to get the following page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscoverySearchResponse {
+    private List<PublicProfileCard> results;
+    // Null on the last page
+    private String nextCursor;
+}
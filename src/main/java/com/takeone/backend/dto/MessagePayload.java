@@ -15,5 +15,6 @@ public class MessagePayload {
     private Long recipientId;
     private String encryptedContent;
     private String type;
-    private Long timestamp;
+    private Long timestamp; // Sender clock, epoch ms
+    private String traceId;
 }
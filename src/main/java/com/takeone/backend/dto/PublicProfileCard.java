@@ -0,0 +1,26 @@
+package com.takeone.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.takeone.backend.entity.AccountType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Public Profile Card
+ * Non-sensitive fields shown in chat lists and discovery; never carries PII
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PublicProfileCard {
+    private Long id;
+    private String username;
+    private String displayName;
+    private String profilePictureUrl;
+    private AccountType accountType;
+    private String location;
+}
@@ -0,0 +1,33 @@
+package com.takeone.backend.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Public Profiles Request
+ * User ids and/or usernames to resolve to profile cards
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicProfilesRequest {
+
+    @Size(max = 100, message = "At most 100 user ids per request")
+    private List<@NotNull Long> userIds;
+
+    @Size(max = 100, message = "At most 100 usernames per request")
+    private List<@NotNull String> usernames;
+
+    @AssertTrue(message = "Either userIds or usernames is required")
+    private boolean isUserIdsOrUsernamesPresent() {
+        return (userIds != null && !userIds.isEmpty()) || (usernames != null && !usernames.isEmpty());
+    }
+}
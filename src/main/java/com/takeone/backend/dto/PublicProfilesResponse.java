@@ -0,0 +1,20 @@
+package com.takeone.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Public Profiles Response
+ * Cards in request order; unknown or inactive users are omitted
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicProfilesResponse {
+    private List<PublicProfileCard> profiles;
+}
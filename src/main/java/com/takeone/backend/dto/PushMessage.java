@@ -0,0 +1,24 @@
+package com.takeone.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gateway-neutral push notification sent to one or more device tokens
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushMessage {
+    private List<String> tokens;
+    private String title;
+    private String body;
+    private Map<String, String> data;
+    private String collapseKey; // Optional, replaces earlier notifications with the same key
+}
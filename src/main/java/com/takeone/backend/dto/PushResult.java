@@ -0,0 +1,67 @@
+package com.takeone.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Per-token outcome of a push, in the same order as PushMessage.tokens
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushResult {
+
+    private List<TokenResult> results;
+
+    public int getSuccessCount() {
+        return (int) results.stream().filter(TokenResult::isSuccess).count();
+    }
+
+    public int getFailureCount() {
+        return results.size() - getSuccessCount();
+    }
+
+    public enum FailureReason {
+        UNREGISTERED(true),
+        INVALID_ARGUMENT(true),
+        SENDER_ID_MISMATCH(true),
+        QUOTA_EXCEEDED(false),
+        UNAVAILABLE(false),
+        INTERNAL(false),
+        THIRD_PARTY_AUTH_ERROR(false),
+        UNKNOWN(false);
+
+        private final boolean permanent;
+
+        FailureReason(boolean permanent) {
+            this.permanent = permanent;
+        }
+
+        /**
+         * True when the token will never work again and should be deactivated
+         */
+        public boolean isPermanent() {
+            return permanent;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TokenResult {
+        private String token;
+        private boolean success;
+        private FailureReason failureReason; // null on success
+
+        public static TokenResult success(String token) {
+            return new TokenResult(token, true, null);
+        }
+
+        public static TokenResult failure(String token, FailureReason reason) {
+            return new TokenResult(token, false, reason);
+        }
+    }
+}
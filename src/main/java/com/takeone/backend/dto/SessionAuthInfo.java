@@ -0,0 +1,35 @@
+package com.takeone.backend.dto;
+
+import com.takeone.backend.entity.AccountType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Session Auth Info
+ * Just what request authentication needs from a session and its user, read with
+ * a single projection query - no User entity is loaded and nothing is decrypted.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "emailCiphertext")
+public class SessionAuthInfo {
+
+    private Long sessionId;
+    private LocalDateTime expiresAt;
+    private String ipAddress;
+
+    private Long userId;
+    private String uid;
+    private String username;
+    // Still encrypted; decrypted only if the principal's email is read
+    private String emailCiphertext;
+    private AccountType accountType;
+    private Boolean userActive;
+
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiresAt);
+    }
+}
@@ -12,4 +12,5 @@ import lombok.NoArgsConstructor;
 public class WSMessage {
     private String type; // INIT, MESSAGE, DELIVERY_ACK, ERROR
     private String payload; // JSON string of the actual payload
+    private String traceId; // Correlates a message across relay, storage, replay and push
 }
@@ -0,0 +1,45 @@
+package com.takeone.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a resumable, keyset-paged background job
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    // Highest primary key processed; the next batch starts after it
+    @Column(name = "last_id", nullable = false)
+    @Builder.Default
+    private Long lastId = 0L;
+
+    @Column(name = "processed", nullable = false)
+    @Builder.Default
+    private Long processed = 0L;
+
+    @Column(name = "completed", nullable = false)
+    @Builder.Default
+    private Boolean completed = false;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static JobCheckpoint start(String jobName) {
+        return JobCheckpoint.builder().jobName(jobName).build();
+    }
+}
@@ -34,6 +34,13 @@ public class PendingMessage {
     @Column(name = "message_type", nullable = false, length = 20)
     private String messageType;
 
+    @Column(name = "trace_id", length = 64)
+    private String traceId;
+
+    // Sender's MessagePayload.timestamp (epoch ms)
+    @Column(name = "sent_at")
+    private Long sentAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,26 @@
+package com.takeone.backend.entity;
+
+/**
+ * Lifecycle of a push outbox row
+ */
+public enum PushOutboxStatus {
+    /**
+     * Waiting for its next dispatch attempt
+     */
+    PENDING,
+
+    /**
+     * Claimed by a dispatcher, lease expires at next_attempt_at
+     */
+    IN_FLIGHT,
+
+    /**
+     * Handed to the push gateway
+     */
+    SENT,
+
+    /**
+     * Gave up after the maximum number of attempts
+     */
+    DEAD
+}
@@ -1,8 +1,11 @@
 package com.takeone.backend.entity;
 
 import jakarta.persistence.*;
+import com.takeone.backend.util.BlindIndex;
+import com.takeone.backend.util.EncryptedField;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -17,9 +20,11 @@ import java.time.LocalDateTime;
 })
 @Getter
 @Setter
-@ToString(exclude = {"email", "mobile", "firstName", "lastName", "dob"})
+@ToString(exclude = {"email", "mobile", "firstName", "lastName", "dob",
+        "emailCiphertext", "mobileCiphertext", "firstNameCiphertext", "lastNameCiphertext", "dobCiphertext"})
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate // Updates write only the changed columns, so untouched ciphertext is not rewritten
 public class User {
 
     @Id
@@ -38,26 +43,54 @@ public class User {
     @Column(name = "username_hash", unique = true, length = 64)
     private String usernameHash;
 
-    // Encrypted sensitive fields
-    @Convert(converter = com.takeone.backend.util.AttributeEncryptor.class)
+    // Encrypted sensitive fields - ciphertext as stored, decrypted on first access
+    // through the getters below (see EncryptedField)
     @Column(name = "email", length = 500)
-    private String email;
+    private String emailCiphertext;
 
-    @Convert(converter = com.takeone.backend.util.AttributeEncryptor.class)
     @Column(name = "mobile", length = 500)
-    private String mobile;
+    private String mobileCiphertext;
 
-    @Convert(converter = com.takeone.backend.util.AttributeEncryptor.class)
     @Column(name = "first_name", length = 500)
-    private String firstName;
+    private String firstNameCiphertext;
 
-    @Convert(converter = com.takeone.backend.util.AttributeEncryptor.class)
     @Column(name = "last_name", length = 500)
-    private String lastName;
+    private String lastNameCiphertext;
 
-    @Convert(converter = com.takeone.backend.util.AttributeEncryptor.class)
     @Column(name = "dob", length = 500) // Format: YYYY-MM-DD encrypted
-    private String dob;
+    private String dobCiphertext;
+
+    // Blind indexes (keyed HMAC) for equality lookups, kept in step by the setters
+    @Column(name = "email_bidx", length = 64)
+    private String emailBidx;
+
+    @Column(name = "mobile_bidx", length = 64)
+    private String mobileBidx;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EncryptedField email = new EncryptedField();
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EncryptedField mobile = new EncryptedField();
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EncryptedField firstName = new EncryptedField();
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EncryptedField lastName = new EncryptedField();
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final EncryptedField dob = new EncryptedField();
 
     // Public profile fields (not encrypted)
     @Column(name = "display_name", length = 100)
@@ -101,6 +134,54 @@ public class User {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    public String getEmail() {
+        return email.get(emailCiphertext);
+    }
+
+    public void setEmail(String value) {
+        String previous = emailCiphertext;
+        emailCiphertext = email.set(emailCiphertext, value);
+        if (emailCiphertext != previous || emailBidx == null) {
+            emailBidx = BlindIndex.email(value);
+        }
+    }
+
+    public String getMobile() {
+        return mobile.get(mobileCiphertext);
+    }
+
+    public void setMobile(String value) {
+        String previous = mobileCiphertext;
+        mobileCiphertext = mobile.set(mobileCiphertext, value);
+        if (mobileCiphertext != previous || mobileBidx == null) {
+            mobileBidx = BlindIndex.mobile(value);
+        }
+    }
+
+    public String getFirstName() {
+        return firstName.get(firstNameCiphertext);
+    }
+
+    public void setFirstName(String value) {
+        firstNameCiphertext = firstName.set(firstNameCiphertext, value);
+    }
+
+    public String getLastName() {
+        return lastName.get(lastNameCiphertext);
+    }
+
+    public void setLastName(String value) {
+        lastNameCiphertext = lastName.set(lastNameCiphertext, value);
+    }
+
+    public String getDob() {
+        return dob.get(dobCiphertext);
+    }
+
+    public void setDob(String value) {
+        dobCiphertext = dob.set(dobCiphertext, value);
+    }
+
     // Helper method to set username and automatically generate hash
     public void setUsernameWithHash(String username) {
         this.username = username;
@@ -2,8 +2,12 @@ package com.takeone.backend.repository;
 
 import com.takeone.backend.entity.DeviceToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,11 @@ public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long>
     List<DeviceToken> findByUserIdAndIsActiveTrue(Long userId);
 
     Optional<DeviceToken> findByFcmToken(String fcmToken);
+
+    /**
+     * Deactivate a batch of tokens in a single statement
+     */
+    @Modifying
+    @Query("UPDATE DeviceToken d SET d.isActive = false WHERE d.fcmToken IN :fcmTokens AND d.isActive = true")
+    int deactivateByFcmTokens(@Param("fcmTokens") Collection<String> fcmTokens);
 }
@@ -0,0 +1,73 @@
+package com.takeone.backend.repository;
+
+import com.takeone.backend.entity.PushOutbox;
+import com.takeone.backend.entity.PushOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PushOutboxRepository extends JpaRepository<PushOutbox, Long> {
+
+    /**
+     * Insert a push for the recipient, or fold the message into the row that is
+     * still open for coalescing (unique coalesce_key = recipient_id)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO push_outbox (recipient_id, sender_id, message_id, message_count, coalesce_key, " +
+            "status, attempts, next_attempt_at, trace_id, first_sent_at) " +
+            "VALUES (:recipientId, :senderId, :messageId, 1, :recipientId, 'PENDING', 0, :nextAttemptAt, " +
+            ":traceId, :sentAt) " +
+            "ON DUPLICATE KEY UPDATE sender_id = :senderId, message_id = :messageId, " +
+            "message_count = message_count + 1, trace_id = :traceId",
+            nativeQuery = true)
+    int upsertPending(@Param("recipientId") Long recipientId,
+                      @Param("senderId") Long senderId,
+                      @Param("messageId") String messageId,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("traceId") String traceId,
+                      @Param("sentAt") Long sentAt);
+
+    /**
+     * Lock a batch of due rows, skipping rows already locked by other dispatchers.
+     * IN_FLIGHT rows whose lease expired (dispatcher died mid-send) are due again.
+     */
+    @Query(value = "SELECT * FROM push_outbox " +
+            "WHERE status IN ('PENDING', 'IN_FLIGHT') AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<PushOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Record the outcome of a send, only while the row is still under the lease
+     * the dispatcher claimed it with (next_attempt_at is the lease expiry).
+     * Returns 0 when the lease ran out and another dispatcher may have retaken the row.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PushOutbox o SET o.status = :status, o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, " +
+            "o.lastError = :lastError, o.updatedAt = :now " +
+            "WHERE o.id = :id AND o.status = com.takeone.backend.entity.PushOutboxStatus.IN_FLIGHT " +
+            "AND o.nextAttemptAt = :leaseUntil")
+    int completeLease(@Param("id") Long id,
+                      @Param("leaseUntil") LocalDateTime leaseUntil,
+                      @Param("status") PushOutboxStatus status,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Delete sent and dead rows older than the retention cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM PushOutbox o WHERE o.status IN (com.takeone.backend.entity.PushOutboxStatus.SENT, " +
+            "com.takeone.backend.entity.PushOutboxStatus.DEAD) AND o.updatedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
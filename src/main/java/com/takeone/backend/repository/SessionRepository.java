@@ -1,5 +1,6 @@
 package com.takeone.backend.repository;
 
+import com.takeone.backend.dto.SessionAuthInfo;
 import com.takeone.backend.entity.Session;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -20,6 +21,30 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
     @Query("SELECT s FROM Session s JOIN FETCH s.user WHERE s.refreshToken = :refreshToken AND s.isActive = true")
     Optional<Session> findByRefreshTokenAndIsActiveTrue(@Param("refreshToken") String refreshToken);
 
+    /**
+     * Authentication projection of an active session - no entities, no decryption
+     */
+    @Query("SELECT new com.takeone.backend.dto.SessionAuthInfo(s.id, s.expiresAt, s.ipAddress, " +
+            "u.id, u.uid, u.username, u.emailCiphertext, u.accountType, u.isActive) " +
+            "FROM Session s JOIN s.user u WHERE s.refreshToken = :refreshToken AND s.isActive = true")
+    Optional<SessionAuthInfo> findAuthInfoByRefreshToken(@Param("refreshToken") String refreshToken);
+
+    /**
+     * Record session access without loading the entity
+     */
+    @Modifying
+    @Query("UPDATE Session s SET s.lastAccessedAt = :now, s.ipAddress = :ipAddress WHERE s.id = :sessionId")
+    int touchSession(@Param("sessionId") Long sessionId,
+                     @Param("now") LocalDateTime now,
+                     @Param("ipAddress") String ipAddress);
+
+    /**
+     * Deactivate a single session
+     */
+    @Modifying
+    @Query("UPDATE Session s SET s.isActive = false WHERE s.id = :sessionId")
+    int deactivateSession(@Param("sessionId") Long sessionId);
+
     /**
      * Find all active sessions for a user
      */
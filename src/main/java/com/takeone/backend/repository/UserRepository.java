@@ -1,10 +1,22 @@
 package com.takeone.backend.repository;
 
+import com.takeone.backend.dto.PublicProfileCard;
 import com.takeone.backend.entity.User;
+import com.takeone.backend.util.BlindIndex;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -20,9 +32,112 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     /**
-     * Find user by email (encrypted, so this needs special handling)
+     * Find users by email blind index (index seek, no decryption)
      */
-    Optional<User> findByEmail(String email);
+    List<User> findByEmailBidx(String emailBidx);
+
+    /**
+     * Find users by mobile blind index (index seek, no decryption)
+     */
+    List<User> findByMobileBidx(String mobileBidx);
+
+    /**
+     * Find users by email; the email is stored encrypted, so this goes through its blind index
+     */
+    default List<User> findAllByEmail(String email) {
+        String emailBidx = BlindIndex.email(email);
+        return emailBidx != null ? findByEmailBidx(emailBidx) : List.of();
+    }
+
+    /**
+     * Find users by mobile; the mobile is stored encrypted, so this goes through its blind index
+     */
+    default List<User> findAllByMobile(String mobile) {
+        String mobileBidx = BlindIndex.mobile(mobile);
+        return mobileBidx != null ? findByMobileBidx(mobileBidx) : List.of();
+    }
+
+    /**
+     * Public profile cards by id - a projection, so no entity is loaded and no PII column is read
+     */
+    @Query("SELECT new com.takeone.backend.dto.PublicProfileCard(u.id, u.username, u.displayName, " +
+            "u.profilePictureUrl, u.accountType, u.location) FROM User u WHERE u.id IN :ids AND u.isActive = true")
+    List<PublicProfileCard> findPublicProfileCardsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Public profile cards by username - a projection, so no entity is loaded and no PII column is read
+     */
+    @Query("SELECT new com.takeone.backend.dto.PublicProfileCard(u.id, u.username, u.displayName, " +
+            "u.profilePictureUrl, u.accountType, u.location) FROM User u WHERE u.username IN :usernames AND u.isActive = true")
+    List<PublicProfileCard> findPublicProfileCardsByUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Public profile card of one user, if active
+     */
+    @Query("SELECT new com.takeone.backend.dto.PublicProfileCard(u.id, u.username, u.displayName, " +
+            "u.profilePictureUrl, u.accountType, u.location) FROM User u WHERE u.id = :id AND u.isActive = true")
+    Optional<PublicProfileCard> findPublicProfileCardById(@Param("id") Long id);
+
+    /**
+     * Stream every active user's public profile card (see streamAllUsernameHashes)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.takeone.backend.dto.PublicProfileCard(u.id, u.username, u.displayName, " +
+            "u.profilePictureUrl, u.accountType, u.location) FROM User u WHERE u.isActive = true")
+    Stream<PublicProfileCard> streamAllPublicProfileCards();
+
+    /**
+     * Next keyset page of users, for resumable background jobs
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
+
+    /**
+     * Set a missing email blind index, unless the email changed since it was read
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.emailBidx = :bidx WHERE u.id = :id " +
+            "AND u.emailCiphertext = :ciphertext AND u.emailBidx IS NULL")
+    int fillEmailBidx(@Param("id") Long id, @Param("ciphertext") String ciphertext, @Param("bidx") String bidx);
+
+    /**
+     * Set a missing mobile blind index, unless the mobile changed since it was read
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.mobileBidx = :bidx WHERE u.id = :id " +
+            "AND u.mobileCiphertext = :ciphertext AND u.mobileBidx IS NULL")
+    int fillMobileBidx(@Param("id") Long id, @Param("ciphertext") String ciphertext, @Param("bidx") String bidx);
+
+    // Re-encryption: replace a ciphertext only if it is still the one that was read,
+    // so a profile write committed in between is never overwritten
+
+    @Modifying
+    @Query("UPDATE User u SET u.emailCiphertext = :newValue WHERE u.id = :id AND u.emailCiphertext = :oldValue")
+    int replaceEmailCiphertext(@Param("id") Long id, @Param("oldValue") String oldValue,
+                               @Param("newValue") String newValue);
+
+    @Modifying
+    @Query("UPDATE User u SET u.mobileCiphertext = :newValue WHERE u.id = :id AND u.mobileCiphertext = :oldValue")
+    int replaceMobileCiphertext(@Param("id") Long id, @Param("oldValue") String oldValue,
+                                @Param("newValue") String newValue);
+
+    @Modifying
+    @Query("UPDATE User u SET u.firstNameCiphertext = :newValue " +
+            "WHERE u.id = :id AND u.firstNameCiphertext = :oldValue")
+    int replaceFirstNameCiphertext(@Param("id") Long id, @Param("oldValue") String oldValue,
+                                   @Param("newValue") String newValue);
+
+    @Modifying
+    @Query("UPDATE User u SET u.lastNameCiphertext = :newValue WHERE u.id = :id AND u.lastNameCiphertext = :oldValue")
+    int replaceLastNameCiphertext(@Param("id") Long id, @Param("oldValue") String oldValue,
+                                  @Param("newValue") String newValue);
+
+    @Modifying
+    @Query("UPDATE User u SET u.dobCiphertext = :newValue WHERE u.id = :id AND u.dobCiphertext = :oldValue")
+    int replaceDobCiphertext(@Param("id") Long id, @Param("oldValue") String oldValue,
+                             @Param("newValue") String newValue);
 
     /**
      * Check if username exists
@@ -37,4 +152,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean findByUsernameHash(String hash);
 
     boolean existsByUsernameHash(String usernameHash);
+
+    @Query("SELECT u.usernameHash FROM User u WHERE u.usernameHash IN :usernameHashes")
+    List<String> findExistingUsernameHashes(@Param("usernameHashes") Collection<String> usernameHashes);
+
+    long countByUsernameHashIsNotNull();
+
+    /**
+     * Stream every username hash without materializing the result set
+     * (Integer.MIN_VALUE fetch size switches MySQL Connector/J to row streaming).
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT u.usernameHash FROM User u WHERE u.usernameHash IS NOT NULL")
+    Stream<String> streamAllUsernameHashes();
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.takeone.backend.scheduler;
+
+import com.takeone.backend.service.BlindIndexBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler that paces the blind index backfill
+ * One batch per interval, so throughput is batch-size rows per interval and
+ * the backfill never competes with live traffic for long
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.security.blind-index.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class BlindIndexBackfillScheduler {
+
+    private final BlindIndexBackfillService blindIndexBackfillService;
+    private volatile boolean done;
+
+    @Scheduled(fixedDelayString = "${app.security.blind-index.backfill.interval:1000}",
+            initialDelayString = "${app.security.blind-index.backfill.initial-delay:60000}")
+    public void backfill() {
+        if (done) {
+            return;
+        }
+        try {
+            done = !blindIndexBackfillService.backfillBatch();
+        } catch (Exception e) {
+            log.error("Error during blind index backfill: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.takeone.backend.scheduler;
+
+import com.takeone.backend.service.DiscoveryIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler that rebuilds the discovery index nightly
+ * Catches any change whose incremental update was missed
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.task.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class DiscoveryIndexScheduler {
+
+    private final DiscoveryIndexService discoveryIndexService;
+
+    /**
+     * Rebuild the index nightly
+     * Cron: 0 30 4 * * * = 4:30 AM every day
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    public void rebuildIndex() {
+        try {
+            discoveryIndexService.rebuild();
+        } catch (Exception e) {
+            log.error("Error during discovery index rebuild: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.takeone.backend.scheduler;
+
+import com.takeone.backend.entity.PushOutbox;
+import com.takeone.backend.service.PushOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Scheduler that drains the push outbox in bounded batches
+ * Every node runs it; SKIP LOCKED claiming keeps the batches disjoint
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.task.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class PushOutboxDispatcher {
+
+    private final PushOutboxService pushOutboxService;
+
+    /**
+     * Claim and send due pushes
+     * Runs again as soon as the previous batch finished, after the poll interval
+     */
+    @Scheduled(fixedDelayString = "${app.push.outbox.poll-interval:1000}")
+    public void dispatchDuePushes() {
+        try {
+            List<PushOutbox> batch = pushOutboxService.claimDueBatch();
+            if (!batch.isEmpty()) {
+                log.debug("Dispatching {} push outbox rows", batch.size());
+                batch.forEach(pushOutboxService::dispatch);
+            }
+        } catch (Exception e) {
+            log.error("Error during push outbox dispatch: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Purge sent and dead rows daily
+     * Cron: 0 30 3 * * * = 3:30 AM every day
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeFinishedPushes() {
+        try {
+            int deleted = pushOutboxService.purgeFinished();
+            log.info("Purged {} sent or dead push outbox rows", deleted);
+        } catch (Exception e) {
+            log.error("Error during push outbox purge: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.takeone.backend.scheduler;
+
+import com.takeone.backend.service.ReEncryptionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler that paces re-encryption to a rows-per-second budget
+ * Each run rewrites one batch and the next run is delayed by
+ * batch-size / rows-per-second, so the job never holds the scheduler thread
+ * and MySQL sees a steady, bounded write rate
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.security.reencryption.enabled", havingValue = "true", matchIfMissing = true)
+public class ReEncryptionScheduler {
+
+    private final ReEncryptionService reEncryptionService;
+    private volatile boolean done;
+
+    @Scheduled(fixedDelayString = "#{1000 * ${app.security.reencryption.batch-size:100} / ${app.security.reencryption.rows-per-second:100}}",
+            initialDelayString = "${app.security.reencryption.initial-delay:120000}")
+    public void reEncrypt() {
+        if (done) {
+            return;
+        }
+        try {
+            done = !reEncryptionService.reEncryptBatch();
+        } catch (Exception e) {
+            log.error("Error during re-encryption: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.takeone.backend.scheduler;
+
+import com.takeone.backend.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scheduler that polls the replica's replication lag and feeds it to the
+ * routing datasource, which stops sending reads there once it falls too far
+ * behind
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                             @Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        this.routingDataSource = routingDataSource;
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5000}")
+    public void checkLag() {
+        routingDataSource.updateLag(readLag());
+    }
+
+    // Seconds_Behind_Source is NULL while replication is stopped
+    private Duration readLag() {
+        try {
+            List<Map<String, Object>> rows = replicaJdbcTemplate.queryForList("SHOW REPLICA STATUS");
+            if (rows.isEmpty()) {
+                // Not a replica (e.g. local setup pointing at the primary): nothing to lag behind
+                return Duration.ZERO;
+            }
+            Object seconds = rows.get(0).get("Seconds_Behind_Source");
+            return seconds instanceof Number number ? Duration.ofSeconds(number.longValue()) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read replica lag: {}", e.getMessage());
+            return null;
+        }
+    }
+}
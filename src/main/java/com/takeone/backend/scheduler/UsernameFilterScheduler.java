@@ -0,0 +1,48 @@
+package com.takeone.backend.scheduler;
+
+import com.takeone.backend.service.UsernameBloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler that keeps the username Bloom filter fresh
+ * Rebuilt nightly to drop released usernames, and early when sign-ups fill it
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.task.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class UsernameFilterScheduler {
+
+    private final UsernameBloomFilter usernameBloomFilter;
+
+    /**
+     * Rebuild the filter nightly
+     * Cron: 0 0 4 * * * = 4:00 AM every day
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    public void rebuildFilter() {
+        try {
+            usernameBloomFilter.rebuild();
+        } catch (Exception e) {
+            log.error("Error during username filter rebuild: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check every 10 minutes whether the filter has outgrown its capacity
+     */
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void rebuildFilterIfSaturated() {
+        try {
+            usernameBloomFilter.rebuildIfSaturated();
+        } catch (Exception e) {
+            log.error("Error during username filter capacity check: {}", e.getMessage(), e);
+        }
+    }
+}
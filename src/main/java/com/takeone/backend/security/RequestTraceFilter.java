@@ -1,15 +1,24 @@
 package com.takeone.backend.security;
 
+import com.takeone.backend.config.QueryMetrics;
+import com.takeone.backend.util.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class RequestTraceFilter extends OncePerRequestFilter {
@@ -19,10 +28,18 @@ public class RequestTraceFilter extends OncePerRequestFilter {
     private static final String MDC_APP_NAME = "appName";
     private static final String MDC_ENDPOINT = "endpoint";
     private static final String MDC_TRACE_ID = "traceId";
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
     private final String appName;
+    private final QueryMetrics queryMetrics;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> backendTimers = new ConcurrentHashMap<>();
 
-    public RequestTraceFilter(@Value("${spring.application.name:take-one-app-backend}") String appName) {
+    public RequestTraceFilter(@Value("${spring.application.name:take-one-app-backend}") String appName,
+                              QueryMetrics queryMetrics,
+                              MeterRegistry meterRegistry) {
         this.appName = appName;
+        this.queryMetrics = queryMetrics;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -55,10 +72,68 @@ public class RequestTraceFilter extends OncePerRequestFilter {
             MDC.put(MDC_APP_NAME, appName);
             MDC.put(MDC_ENDPOINT, endpoint);
             MDC.put(MDC_TRACE_ID, traceId);
+            queryMetrics.beginUnit();
+            RequestTimings.begin();
 
-            filterChain.doFilter(request, response);
+            // The handshake response of a WebSocket upgrade is left unwrapped
+            boolean upgrade = "websocket".equalsIgnoreCase(request.getHeader("Upgrade"));
+            filterChain.doFilter(request, upgrade ? response : new ServerTimingResponseWrapper(response));
         } finally {
+            // URI pattern rather than the raw path keeps the metric's tags bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            queryMetrics.endUnit("http", uri);
+            RequestTimings timings = RequestTimings.end();
+            // Nothing forced a commit during the chain: the header can still go out now
+            if (timings != null && !response.isCommitted() && !response.containsHeader(SERVER_TIMING_HEADER)) {
+                response.setHeader(SERVER_TIMING_HEADER, timings.toServerTiming());
+            }
+            recordBackendTimings(uri, request.getMethod(), timings);
             MDC.clear();
         }
     }
+
+    /**
+     * Time each backend took for this request, per endpoint, for percentiles
+     * Only backends the request actually used are recorded.
+     */
+    private void recordBackendTimings(String uri, String method, RequestTimings timings) {
+        if (timings == null) {
+            return;
+        }
+        for (RequestTimings.Backend backend : RequestTimings.Backend.values()) {
+            if (timings.calls(backend) == 0) {
+                continue;
+            }
+            backendTimers.computeIfAbsent(method + ' ' + uri + ' ' + backend.metricName(),
+                            key -> Timer.builder("http.server.requests.backend")
+                                    .description("Time an HTTP request spent waiting on a backend")
+                                    .tag("method", method)
+                                    .tag("uri", uri)
+                                    .tag("backend", backend.metricName())
+                                    .publishPercentileHistogram()
+                                    .register(meterRegistry))
+                    .record(timings.nanos(backend), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Adds the Server-Timing header just before the response is committed, when
+     * the backend time spent so far is known and headers can still be set
+     */
+    private static final class ServerTimingResponseWrapper extends OnCommittedResponseWrapper {
+
+        ServerTimingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null && !isCommitted()) {
+                setHeader(SERVER_TIMING_HEADER, timings.toServerTiming());
+            }
+        }
+
+    }
 }
@@ -1,7 +1,6 @@
 package com.takeone.backend.security;
 
-import com.takeone.backend.entity.Session;
-import com.takeone.backend.entity.User;
+import com.takeone.backend.dto.SessionAuthInfo;
 import com.takeone.backend.service.SessionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -28,14 +27,8 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
     private static final String SESSION_TOKEN_HEADER = "X-Session-Token";
     private final SessionService sessionService;
 
-    private static @org.checkerframework.checker.nullness.qual.NonNull UsernamePasswordAuthenticationToken getAuthenticationToken(User user) {
-        UserPrincipal userPrincipal = new UserPrincipal(
-                user.getId(),
-                user.getUid(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getAccountType()
-        );
+    private static @org.checkerframework.checker.nullness.qual.NonNull UsernamePasswordAuthenticationToken getAuthenticationToken(SessionAuthInfo session) {
+        UserPrincipal userPrincipal = UserPrincipal.from(session);
 
         return new UsernamePasswordAuthenticationToken(
                 userPrincipal,
@@ -56,14 +49,12 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
 
             if (StringUtils.hasText(sessionToken)) {
                 // Validate session and set authentication
-                Session session = sessionService.validateAndRefreshSession(sessionToken, request);
-
-                if (session != null && session.isValid()) {
-                    User user = session.getUser();
+                SessionAuthInfo session = sessionService.validateAndRefreshSession(sessionToken, request);
 
-                    if (user != null && user.getIsActive()) {
+                if (session != null && !session.isExpired()) {
+                    if (Boolean.TRUE.equals(session.getUserActive())) {
                         // Create authentication token
-                        UsernamePasswordAuthenticationToken authentication = getAuthenticationToken(user);
+                        UsernamePasswordAuthenticationToken authentication = getAuthenticationToken(session);
 
                         authentication.setDetails(
                                 new WebAuthenticationDetailsSource().buildDetails(request)
@@ -71,7 +62,7 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
 
                         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                        log.debug("Session authenticated for user: {}", user.getUsername());
+                        log.debug("Session authenticated for user: {}", session.getUsername());
                     } else {
                         log.warn("User is inactive or null for session token");
                     }
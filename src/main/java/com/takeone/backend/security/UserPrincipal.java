@@ -1,9 +1,13 @@
 package com.takeone.backend.security;
 
+import com.takeone.backend.dto.SessionAuthInfo;
 import com.takeone.backend.entity.AccountType;
+import com.takeone.backend.util.AttributeEncryptor;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.io.Serializable;
 
@@ -22,6 +26,38 @@ public class UserPrincipal implements Serializable {
     private String email;
     private AccountType accountType;
 
+    // Encrypted email from the session lookup, decrypted on first getEmail()
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient String emailCiphertext;
+
+    public UserPrincipal(Long id, String uid, String username, String email, AccountType accountType) {
+        this.id = id;
+        this.uid = uid;
+        this.username = username;
+        this.email = email;
+        this.accountType = accountType;
+    }
+
+    public static UserPrincipal from(SessionAuthInfo info) {
+        UserPrincipal principal = new UserPrincipal(
+                info.getUserId(),
+                info.getUid(),
+                info.getUsername(),
+                null,
+                info.getAccountType()
+        );
+        principal.emailCiphertext = info.getEmailCiphertext();
+        return principal;
+    }
+
+    public String getEmail() {
+        if (email == null && emailCiphertext != null) {
+            email = AttributeEncryptor.decrypt(emailCiphertext);
+        }
+        return email;
+    }
+
     public boolean isCreator() {
         return AccountType.CREATOR.equals(accountType);
     }
@@ -37,4 +73,8 @@ public class UserPrincipal implements Serializable {
     public boolean isNewUser() {
         return AccountType.NEW_USER.equals(accountType);
     }
+
+    public boolean isAdmin() {
+        return AccountType.ADMIN.equals(accountType);
+    }
 }
\ No newline at end of file
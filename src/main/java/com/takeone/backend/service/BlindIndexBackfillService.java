@@ -0,0 +1,93 @@
+package com.takeone.backend.service;
+
+import com.takeone.backend.entity.JobCheckpoint;
+import com.takeone.backend.entity.User;
+import com.takeone.backend.repository.JobCheckpointRepository;
+import com.takeone.backend.repository.UserRepository;
+import com.takeone.backend.util.BlindIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Fills email/mobile blind indexes for rows written before they existed
+ * Walks the users table in primary-key order, one bounded batch per call, and
+ * records progress in job_checkpoints so restarts resume where they left off.
+ */
+@Slf4j
+@Service
+public class BlindIndexBackfillService {
+
+    static final String JOB_NAME = "blind-index-backfill";
+
+    private final UserRepository userRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final int batchSize;
+    private final Counter rowsCounter;
+
+    public BlindIndexBackfillService(UserRepository userRepository,
+                                     JobCheckpointRepository jobCheckpointRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.security.blind-index.backfill.batch-size:200}") int batchSize) {
+        this.userRepository = userRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.batchSize = batchSize;
+        this.rowsCounter = meterRegistry.counter("blind_index.backfill.rows");
+    }
+
+    /**
+     * Process the next batch
+     *
+     * @return false once the whole table has been processed
+     */
+    @Transactional
+    public boolean backfillBatch() {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> JobCheckpoint.start(JOB_NAME));
+        if (checkpoint.getCompleted()) {
+            return false;
+        }
+
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(checkpoint.getLastId(), Limit.of(batchSize));
+        if (users.isEmpty()) {
+            checkpoint.setCompleted(true);
+            jobCheckpointRepository.save(checkpoint);
+            log.info("Blind index backfill completed, {} rows processed", checkpoint.getProcessed());
+            return false;
+        }
+
+        int updated = 0;
+        for (User user : users) {
+            int changed = 0;
+            // Only the columns that still lack an index are decrypted. The UPDATE only
+            // applies if the ciphertext is still the one read here, so a concurrent
+            // email/mobile change (which sets its own index) is never overwritten.
+            if (user.getEmailBidx() == null && user.getEmailCiphertext() != null) {
+                changed += userRepository.fillEmailBidx(user.getId(), user.getEmailCiphertext(),
+                        BlindIndex.email(user.getEmail()));
+            }
+            if (user.getMobileBidx() == null && user.getMobileCiphertext() != null) {
+                changed += userRepository.fillMobileBidx(user.getId(), user.getMobileCiphertext(),
+                        BlindIndex.mobile(user.getMobile()));
+            }
+            if (changed > 0) {
+                updated++;
+            }
+        }
+
+        checkpoint.setLastId(users.get(users.size() - 1).getId());
+        checkpoint.setProcessed(checkpoint.getProcessed() + users.size());
+        jobCheckpointRepository.save(checkpoint);
+        rowsCounter.increment(updated);
+
+        log.debug("Blind index backfill: {} of {} rows updated, up to id {}",
+                updated, users.size(), checkpoint.getLastId());
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.takeone.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sender-to-recipient latency of relayed messages, measured from the sender's
+ * MessagePayload.timestamp: message.delivery.latency{stage}
+ * - relay: pushed straight to an online recipient
+ * - store: stored as pending for an offline recipient
+ * - replay: pending message pushed when the recipient reconnects
+ * - delivery: recipient acknowledged a pending message
+ * - push: notification for it sent through FCM
+ * The timestamp comes from the sender's clock: negative values within
+ * MAX_CLOCK_SKEW_MS count as zero, anything further off (a clock running ahead,
+ * or an implausibly old timestamp) is dropped rather than skewing the percentiles.
+ */
+@Component
+public class DeliveryLatencyRecorder {
+
+    public enum Stage {
+        RELAY, STORE, REPLAY, DELIVERY, PUSH
+    }
+
+    private static final long MAX_PLAUSIBLE_MS = Duration.ofDays(30).toMillis();
+    private static final long MAX_CLOCK_SKEW_MS = Duration.ofSeconds(5).toMillis();
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+    public DeliveryLatencyRecorder(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("message.delivery.latency")
+                    .description("Time from the sender's timestamp until the message reached this stage")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(Stage stage, Long sentAtMillis) {
+        if (sentAtMillis == null || sentAtMillis <= 0) {
+            return;
+        }
+        long latency = System.currentTimeMillis() - sentAtMillis;
+        if (latency > MAX_PLAUSIBLE_MS || latency < -MAX_CLOCK_SKEW_MS) {
+            return;
+        }
+        timers.get(stage).record(Duration.ofMillis(Math.max(0, latency)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.takeone.backend.service;
 
+import com.takeone.backend.config.ReplicaRoutingDataSource;
 import com.takeone.backend.dto.FCMTokenRequest;
 import com.takeone.backend.entity.DeviceToken;
 import com.takeone.backend.entity.User;
@@ -7,22 +8,48 @@ import com.takeone.backend.repository.DeviceTokenRepository;
 import com.takeone.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DeviceTokenService {
 
+    private static final String TOKENS_CACHE = "deviceTokens";
     private final DeviceTokenRepository deviceTokenRepository;
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * Get FCM tokens of all active devices of a user
+     * Cache key: "deviceTokens::userId", evicted on every token change
+     * Loaded from the primary so a token registered on another node is not cached
+     * away by a lagging replica read.
+     */
+    @Cacheable(value = TOKENS_CACHE, key = "#userId")
+    @Transactional(readOnly = true)
+    public List<String> getActiveFcmTokens(Long userId) {
+        // Collectors.toList() keeps a plain ArrayList, which the cache serializer can round-trip
+        return ReplicaRoutingDataSource.onPrimary(() -> deviceTokenRepository.findByUserIdAndIsActiveTrue(userId)
+                .stream()
+                .map(DeviceToken::getFcmToken)
+                .collect(Collectors.toList()));
+    }
 
     /**
      * Register or update a device token (Upsert)
      */
+    @CacheEvict(value = TOKENS_CACHE, key = "#userId")
     @Transactional
     public void registerToken(Long userId, FCMTokenRequest request) {
         log.info("Registering/Updating FCM token for user: {}, device: {}", userId, request.getDeviceId());
@@ -47,7 +74,10 @@ public class DeviceTokenService {
             log.info("Updated existing FCM token for device: {}", request.getDeviceId());
         } else {
             // Check if this FCM token is already used by another record (and re-assign it)
-            deviceTokenRepository.findByFcmToken(request.getFcmToken()).ifPresent(deviceTokenRepository::delete);
+            deviceTokenRepository.findByFcmToken(request.getFcmToken()).ifPresent(previous -> {
+                evictTokensCache(previous.getUser().getId());
+                deviceTokenRepository.delete(previous);
+            });
 
             DeviceToken token = DeviceToken.builder()
                     .user(user)
@@ -69,6 +99,7 @@ public class DeviceTokenService {
     /**
      * Deactivate a specific device token (on logout)
      */
+    @CacheEvict(value = TOKENS_CACHE, key = "#userId")
     @Transactional
     public void deactivateToken(Long userId, String deviceId) {
         log.info("Deactivating FCM token for user: {}, device: {}", userId, deviceId);
@@ -82,6 +113,7 @@ public class DeviceTokenService {
     /**
      * Deactivate all device tokens for a user (on account deactivation)
      */
+    @CacheEvict(value = TOKENS_CACHE, key = "#userId")
     @Transactional
     public void deactivateAllTokens(Long userId) {
         log.info("Deactivating all FCM tokens for user: {}", userId);
@@ -91,4 +123,24 @@ public class DeviceTokenService {
                     deviceTokenRepository.save(token);
                 });
     }
+
+    /**
+     * Deactivate tokens that FCM reported as unregistered or invalid
+     */
+    @CacheEvict(value = TOKENS_CACHE, key = "#userId")
+    @Transactional
+    public int deactivateInvalidTokens(Long userId, Collection<String> fcmTokens) {
+        if (fcmTokens.isEmpty()) {
+            return 0;
+        }
+        log.info("Deactivating {} invalid FCM tokens for user: {}", fcmTokens.size(), userId);
+        return deviceTokenRepository.deactivateByFcmTokens(fcmTokens);
+    }
+
+    private void evictTokensCache(Long userId) {
+        Cache cache = cacheManager.getCache(TOKENS_CACHE);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
 }
@@ -0,0 +1,444 @@
+package com.takeone.backend.service;
+
+import com.takeone.backend.config.ReplicaRoutingDataSource;
+import com.takeone.backend.dto.DiscoverySearchResponse;
+import com.takeone.backend.dto.PublicProfileCard;
+import com.takeone.backend.entity.AccountType;
+import com.takeone.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory discovery index over public profile cards.
+ * Partitioned by AccountType; each partition keeps sorted posting lists keyed by
+ * the normalized tokens of username/display name and of location, so a prefix
+ * query is a range scan over the token map and results come back in user id
+ * order, which is what the cursor encodes. Reads never touch MySQL.
+ * Loaded at startup and rebuilt nightly; profile changes are applied after commit
+ * and fanned out to other nodes over the "discovery:profile-changed" channel.
+ */
+@Slf4j
+@Service
+public class DiscoveryIndexService implements MessageListener {
+
+    private static final String CHANGED_CHANNEL = "discovery:profile-changed";
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Any token starting with the prefix sorts before prefix + this
+    private static final char PREFIX_END = Character.MAX_VALUE;
+    // Shorter driving terms fan out over most of a partition
+    static final int MIN_PREFIX_LENGTH = 2;
+    // Candidates checked per request before returning a (possibly short) page
+    static final int MAX_SCANNED = 5_000;
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    private volatile Map<AccountType, Partition> partitions = emptyPartitions();
+    // Index being rebuilt; changes made meanwhile also go here
+    private volatile Map<AccountType, Partition> building;
+    // Cards refreshed during a rebuild (empty if the user left the index). The
+    // snapshot stream may still deliver an older row for them, so they are
+    // re-applied before the swap. Guarded by swapLock, like the swap itself.
+    private final Map<Long, Optional<PublicProfileCard>> refreshedDuringBuild = new HashMap<>();
+    private final Object swapLock = new Object();
+
+    public DiscoveryIndexService(UserRepository userRepository,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        for (AccountType type : AccountType.values()) {
+            Gauge.builder("discovery.index.size", this, index -> index.partitions.get(type).docs.size())
+                    .tag("accountType", type.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANGED_CHANNEL));
+    }
+
+    /**
+     * Search one account type by name/username prefix and location prefix
+     * Every word of each query must prefix-match a word of the field; blank
+     * queries match all. Results are ordered by user id.
+     * The scan is driven by the longest term, which must have at least
+     * MIN_PREFIX_LENGTH characters, and stops after MAX_SCANNED candidates: a page
+     * can then hold fewer than limit results while nextCursor is still set.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public DiscoverySearchResponse search(AccountType accountType, String query, String location,
+                                          String cursor, int limit) {
+        Partition partition = partitions.get(accountType);
+        long after = decodeCursor(cursor);
+        List<String> nameTerms = tokenize(query);
+        List<String> locationTerms = tokenize(location);
+
+        // Drive the scan from the most selective term, verify the rest against the stored tokens
+        String driver = null;
+        Postings driverPostings = null;
+        for (String term : nameTerms) {
+            if (driver == null || term.length() > driver.length()) {
+                driver = term;
+                driverPostings = partition.nameTokens;
+            }
+        }
+        for (String term : locationTerms) {
+            if (driver == null || term.length() > driver.length()) {
+                driver = term;
+                driverPostings = partition.locationTokens;
+            }
+        }
+        if (driver != null && driver.length() < MIN_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Search terms need at least " + MIN_PREFIX_LENGTH + " characters");
+        }
+        Iterator<Long> candidates = driver != null
+                ? prefixIds(driverPostings, driver, after)
+                : partition.ids.tailSet(after, false).iterator();
+
+        List<PublicProfileCard> results = new ArrayList<>(limit);
+        long lastScanned = after;
+        long resumeAfter = -1;
+        int scanned = 0;
+        while (candidates.hasNext()) {
+            if (scanned == MAX_SCANNED) {
+                // Everything up to lastScanned has been checked
+                resumeAfter = lastScanned;
+                break;
+            }
+            Long id = candidates.next();
+            scanned++;
+            Doc doc = partition.docs.get(id);
+            if (doc != null && matches(doc.nameTokens(), nameTerms) && matches(doc.locationTokens(), locationTerms)) {
+                if (results.size() == limit) {
+                    resumeAfter = results.get(results.size() - 1).getId();
+                    break;
+                }
+                results.add(doc.card());
+            }
+            lastScanned = id;
+        }
+
+        String nextCursor = resumeAfter >= 0 ? encodeCursor(resumeAfter) : null;
+        return DiscoverySearchResponse.builder()
+                .results(results)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Re-index a user once their profile change has committed, on this node and
+     * on every other node
+     */
+    @TransactionalEventListener
+    public void onProfileChanged(ProfileChangedEvent event) {
+        try {
+            refresh(event.userId());
+            stringRedisTemplate.convertAndSend(CHANGED_CHANNEL, String.valueOf(event.userId()));
+        } catch (Exception e) {
+            // The nightly rebuild picks the change up
+            log.warn("Failed to re-index user {}: {}", event.userId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            refresh(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.warn("Failed to apply discovery index update: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * (Re)build the index from the users table
+     * Runs once the application is ready and nightly from DiscoveryIndexScheduler
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Map<AccountType, Partition> next = emptyPartitions();
+            synchronized (swapLock) {
+                refreshedDuringBuild.clear();
+                building = next;
+            }
+
+            try (Stream<PublicProfileCard> cards = userRepository.streamAllPublicProfileCards()) {
+                cards.filter(card -> card.getAccountType() != null)
+                        .forEach(card -> next.get(card.getAccountType()).upsert(card));
+            }
+
+            synchronized (swapLock) {
+                refreshedDuringBuild.forEach((userId, card) -> apply(next, userId, card.orElse(null)));
+                partitions = next;
+            }
+            long count = next.values().stream().mapToLong(partition -> partition.docs.size()).sum();
+            log.info("Discovery index loaded with {} profiles", count);
+        } catch (Exception e) {
+            log.error("Failed to build discovery index, keeping the previous one: {}", e.getMessage(), e);
+        } finally {
+            synchronized (swapLock) {
+                building = null;
+                refreshedDuringBuild.clear();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    // From the primary: a replica may not have the commit yet, and a stale card would stay until the nightly rebuild
+    private void refresh(Long userId) {
+        PublicProfileCard card = ReplicaRoutingDataSource.onPrimary(
+                () -> userRepository.findPublicProfileCardById(userId).orElse(null));
+        synchronized (swapLock) {
+            apply(partitions, userId, card);
+            if (building != null) {
+                apply(building, userId, card);
+                refreshedDuringBuild.put(userId, Optional.ofNullable(card));
+            }
+        }
+    }
+
+    // Account type may have changed, so drop the user from every other partition
+    private static void apply(Map<AccountType, Partition> index, Long userId, PublicProfileCard card) {
+        for (Map.Entry<AccountType, Partition> entry : index.entrySet()) {
+            if (card != null && entry.getKey() == card.getAccountType()) {
+                entry.getValue().upsert(card);
+            } else {
+                entry.getValue().remove(userId);
+            }
+        }
+    }
+
+    // Ascending ids > after from every posting list whose token starts with prefix, merged lazily
+    private static Iterator<Long> prefixIds(Postings tokens, String prefix, long after) {
+        PriorityQueue<PeekingIterator> heads = new PriorityQueue<>();
+        for (NavigableSet<Long> postings : tokens.withPrefix(prefix)) {
+            Iterator<Long> it = postings.tailSet(after, false).iterator();
+            if (it.hasNext()) {
+                heads.add(new PeekingIterator(it));
+            }
+        }
+        return new Iterator<>() {
+            private long last = after;
+
+            @Override
+            public boolean hasNext() {
+                while (!heads.isEmpty() && heads.peek().head <= last) {
+                    advance(heads.poll());
+                }
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Long next() {
+                hasNext();
+                PeekingIterator top = heads.poll();
+                last = top.head;
+                advance(top);
+                return last;
+            }
+
+            private void advance(PeekingIterator it) {
+                if (it.source.hasNext()) {
+                    it.head = it.source.next();
+                    heads.add(it);
+                }
+            }
+        };
+    }
+
+    private static boolean matches(Collection<String> fieldTokens, List<String> terms) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String token : fieldTokens) {
+                if (token.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> nameTokens(PublicProfileCard card) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(card.getDisplayName()));
+        tokens.addAll(tokenize(card.getUsername()));
+        return tokens;
+    }
+
+    private static Set<String> locationTokens(PublicProfileCard card) {
+        return new LinkedHashSet<>(tokenize(card.getLocation()));
+    }
+
+    // Lower-cased, accent-free words; "José-Luis" -> [jose, luis]
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Map<AccountType, Partition> emptyPartitions() {
+        Map<AccountType, Partition> map = new EnumMap<>(AccountType.class);
+        for (AccountType type : AccountType.values()) {
+            map.put(type, new Partition());
+        }
+        return map;
+    }
+
+    /**
+     * Sorted token -> ascending user ids
+     */
+    private static final class Postings {
+        private final ConcurrentSkipListMap<String, ConcurrentSkipListSet<Long>> byToken =
+                new ConcurrentSkipListMap<>();
+
+        Collection<ConcurrentSkipListSet<Long>> withPrefix(String prefix) {
+            return byToken.subMap(prefix, true, prefix + PREFIX_END, false).values();
+        }
+
+        void add(Collection<String> tokens, Long id) {
+            for (String token : tokens) {
+                byToken.computeIfAbsent(token, t -> new ConcurrentSkipListSet<>()).add(id);
+            }
+        }
+
+        void remove(Collection<String> tokens, Long id) {
+            for (String token : tokens) {
+                byToken.computeIfPresent(token, (t, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    /**
+     * A card with its tokens, computed once at upsert so search only compares strings
+     */
+    private record Doc(PublicProfileCard card, Set<String> nameTokens, Set<String> locationTokens) {
+        static Doc of(PublicProfileCard card) {
+            return new Doc(card, DiscoveryIndexService.nameTokens(card), DiscoveryIndexService.locationTokens(card));
+        }
+    }
+
+    /**
+     * Cards of one account type plus their posting lists
+     * Writers are serialized per partition; readers are lock-free and may briefly
+     * see a card under both its old and new tokens, which search re-checks.
+     */
+    private static final class Partition {
+        private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final Postings nameTokens = new Postings();
+        private final Postings locationTokens = new Postings();
+
+        synchronized void upsert(PublicProfileCard card) {
+            Long id = card.getId();
+            Doc doc = Doc.of(card);
+            Doc previous = docs.put(id, doc);
+            if (previous != null) {
+                nameTokens.remove(previous.nameTokens(), id);
+                locationTokens.remove(previous.locationTokens(), id);
+            }
+            nameTokens.add(doc.nameTokens(), id);
+            locationTokens.add(doc.locationTokens(), id);
+            ids.add(id);
+        }
+
+        synchronized void remove(Long id) {
+            Doc previous = docs.remove(id);
+            if (previous != null) {
+                ids.remove(id);
+                nameTokens.remove(previous.nameTokens(), id);
+                locationTokens.remove(previous.locationTokens(), id);
+            }
+        }
+    }
+
+    private static final class PeekingIterator implements Comparable<PeekingIterator> {
+        private final Iterator<Long> source;
+        private long head;
+
+        PeekingIterator(Iterator<Long> source) {
+            this.source = source;
+            this.head = source.next();
+        }
+
+        @Override
+        public int compareTo(PeekingIterator other) {
+            return Long.compare(head, other.head);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.takeone.backend.service;
+
+import com.google.firebase.messaging.*;
+import com.takeone.backend.dto.PushMessage;
+import com.takeone.backend.dto.PushResult;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Push gateway backed by Firebase Cloud Messaging
+ * Sends are bounded by the firebasePush time limiter
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.push.gateway", havingValue = "firebase", matchIfMissing = true)
+public class FirebasePushGateway implements PushGateway {
+
+    private final TimeLimiter timeLimiter;
+
+    public FirebasePushGateway(TimeLimiterRegistry timeLimiterRegistry) {
+        this.timeLimiter = timeLimiterRegistry.timeLimiter(FirebaseService.PUSH_INSTANCE);
+    }
+
+    @Override
+    public PushResult send(PushMessage message) throws PushGatewayException {
+        MulticastMessage.Builder builder = MulticastMessage.builder()
+                .setNotification(Notification.builder()
+                        .setTitle(message.getTitle())
+                        .setBody(message.getBody())
+                        .build())
+                .addAllTokens(message.getTokens());
+
+        if (message.getData() != null) {
+            builder.putAllData(message.getData());
+        }
+
+        String collapseKey = message.getCollapseKey();
+        if (collapseKey != null) {
+            builder.setAndroidConfig(AndroidConfig.builder()
+                            .setCollapseKey(collapseKey)
+                            .setNotification(AndroidNotification.builder()
+                                    .setTag(collapseKey)
+                                    .build())
+                            .build())
+                    .setApnsConfig(ApnsConfig.builder()
+                            .putHeader("apns-collapse-id", collapseKey)
+                            .setAps(Aps.builder().build())
+                            .build());
+        }
+
+        MulticastMessage multicastMessage = builder.build();
+        try {
+            BatchResponse response = timeLimiter.executeFutureSupplier(
+                    () -> FirebaseMessaging.getInstance().sendEachForMulticastAsync(multicastMessage));
+            return toPushResult(message.getTokens(), response);
+        } catch (FirebaseMessagingException e) {
+            throw new PushGatewayException("FCM multicast failed: " + e.getMessage(), e);
+        } catch (TimeoutException e) {
+            throw new PushGatewayException("FCM multicast timed out", e);
+        } catch (Exception e) {
+            throw new PushGatewayException("FCM multicast failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Responses are returned in the same order as the tokens of the request
+     */
+    private PushResult toPushResult(List<String> tokens, BatchResponse response) {
+        List<SendResponse> responses = response.getResponses();
+        List<PushResult.TokenResult> results = new ArrayList<>(responses.size());
+
+        for (int i = 0; i < responses.size(); i++) {
+            SendResponse sendResponse = responses.get(i);
+            String token = tokens.get(i);
+            if (sendResponse.isSuccessful()) {
+                results.add(PushResult.TokenResult.success(token));
+            } else {
+                results.add(PushResult.TokenResult.failure(token, classify(sendResponse.getException())));
+            }
+        }
+        return new PushResult(results);
+    }
+
+    private PushResult.FailureReason classify(FirebaseMessagingException e) {
+        if (e == null || e.getMessagingErrorCode() == null) {
+            return PushResult.FailureReason.UNKNOWN;
+        }
+        return switch (e.getMessagingErrorCode()) {
+            case UNREGISTERED -> PushResult.FailureReason.UNREGISTERED;
+            case INVALID_ARGUMENT -> PushResult.FailureReason.INVALID_ARGUMENT;
+            case SENDER_ID_MISMATCH -> PushResult.FailureReason.SENDER_ID_MISMATCH;
+            case QUOTA_EXCEEDED -> PushResult.FailureReason.QUOTA_EXCEEDED;
+            case UNAVAILABLE -> PushResult.FailureReason.UNAVAILABLE;
+            case INTERNAL -> PushResult.FailureReason.INTERNAL;
+            case THIRD_PARTY_AUTH_ERROR -> PushResult.FailureReason.THIRD_PARTY_AUTH_ERROR;
+        };
+    }
+}
@@ -2,60 +2,177 @@ package com.takeone.backend.service;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
-import com.google.firebase.messaging.*;
-import com.takeone.backend.entity.DeviceToken;
-import com.takeone.backend.repository.DeviceTokenRepository;
-import lombok.RequiredArgsConstructor;
+import com.takeone.backend.dto.PushMessage;
+import com.takeone.backend.dto.PushResult;
+import com.takeone.backend.util.FlightEvents;
+import com.takeone.backend.util.RequestTimings;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
 
+/**
+ * Outbound Firebase calls (Auth and FCM).
+ * Each side has its own bulkhead, timeout and circuit breaker, configured under
+ * resilience4j.*.instances.firebaseAuth / firebasePush, so a degraded Firebase
+ * cannot tie up request threads: while a breaker is open, logins fail fast and
+ * pushes stay queued in the outbox.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class FirebaseService {
 
-    private final DeviceTokenRepository deviceTokenRepository;
+    public static final String AUTH_INSTANCE = "firebaseAuth";
+    public static final String PUSH_INSTANCE = "firebasePush";
 
+    private final DeviceTokenService deviceTokenService;
+    private final PushGateway pushGateway;
+    private final MeterRegistry meterRegistry;
+
+    private final CircuitBreaker authCircuitBreaker;
+    private final Bulkhead authBulkhead;
+    private final TimeLimiter authTimeLimiter;
+    private final CircuitBreaker pushCircuitBreaker;
+    private final Bulkhead pushBulkhead;
+
+    public FirebaseService(DeviceTokenService deviceTokenService,
+                           PushGateway pushGateway,
+                           MeterRegistry meterRegistry,
+                           CircuitBreakerRegistry circuitBreakerRegistry,
+                           BulkheadRegistry bulkheadRegistry,
+                           TimeLimiterRegistry timeLimiterRegistry) {
+        this.deviceTokenService = deviceTokenService;
+        this.pushGateway = pushGateway;
+        this.meterRegistry = meterRegistry;
+        this.authCircuitBreaker = circuitBreakerRegistry.circuitBreaker(AUTH_INSTANCE);
+        this.authBulkhead = bulkheadRegistry.bulkhead(AUTH_INSTANCE);
+        this.authTimeLimiter = timeLimiterRegistry.timeLimiter(AUTH_INSTANCE);
+        this.pushCircuitBreaker = circuitBreakerRegistry.circuitBreaker(PUSH_INSTANCE);
+        this.pushBulkhead = bulkheadRegistry.bulkhead(PUSH_INSTANCE);
+    }
+
+    /**
+     * Verify a Firebase ID token
+     * Throws CallNotPermittedException (breaker open) or BulkheadFullException
+     * instead of waiting when Firebase Auth is degraded.
+     */
     public FirebaseToken verifyToken(String idToken) throws Exception {
-        return FirebaseAuth.getInstance().verifyIdToken(idToken);
+        Callable<FirebaseToken> call = () -> authTimeLimiter.executeFutureSupplier(
+                () -> FirebaseAuth.getInstance().verifyIdTokenAsync(idToken));
+        return guard(authCircuitBreaker, authBulkhead, call).call();
+    }
+
+    /**
+     * Whether pushes can currently be attempted, false while the FCM breaker is open
+     */
+    public boolean isPushAvailable() {
+        return pushCircuitBreaker.getState() != CircuitBreaker.State.OPEN
+                && pushCircuitBreaker.getState() != CircuitBreaker.State.FORCED_OPEN;
     }
 
     /**
      * Send a notification to all active devices of a user
      */
     public void sendNotificationToUser(Long userId, String title, String body, Map<String, String> data) {
-        List<DeviceToken> activeTokens = deviceTokenRepository.findByUserIdAndIsActiveTrue(userId);
+        try {
+            deliverNotificationToUser(userId, title, body, data, null);
+        } catch (Exception e) {
+            log.error("Failed to send multicast notification to user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Send a notification to all active devices of a user, reporting whether it
+     * should be retried.
+     * When a collapse key is given, devices replace any earlier notification with
+     * the same key instead of stacking a new banner.
+     *
+     * @return false if no token succeeded and at least one failed with a transient error
+     * @throws PushGatewayException if the gateway rejected the request as a whole
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException while the FCM breaker is open
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException when too many pushes are in flight
+     */
+    public boolean deliverNotificationToUser(Long userId, String title, String body, Map<String, String> data,
+                                             String collapseKey) throws PushGatewayException {
+        List<String> registrationTokens = deviceTokenService.getActiveFcmTokens(userId);
 
-        if (activeTokens.isEmpty()) {
+        if (registrationTokens.isEmpty()) {
             log.warn("No active push tokens found for user: {}", userId);
-            return;
+            return true;
         }
 
-        List<String> registrationTokens = activeTokens.stream()
-                .map(DeviceToken::getFcmToken)
-                .collect(Collectors.toList());
-
-        MulticastMessage message = MulticastMessage.builder()
-                .setNotification(Notification.builder()
-                        .setTitle(title)
-                        .setBody(body)
-                        .build())
-                .putAllData(data)
-                .addAllTokens(registrationTokens)
+        PushMessage message = PushMessage.builder()
+                .tokens(registrationTokens)
+                .title(title)
+                .body(body)
+                .data(data)
+                .collapseKey(collapseKey)
                 .build();
 
+        PushResult result;
         try {
-            BatchResponse response = FirebaseMessaging.getInstance().sendEachForMulticast(message);
-            log.info("Successfully sent {} push notifications for user {}. Failures: {}",
-                    response.getSuccessCount(), userId, response.getFailureCount());
+            result = send(userId, message);
+        } catch (PushGatewayException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PushGatewayException(e.getMessage(), e);
+        }
+        log.info("Successfully sent {} push notifications for user {}. Failures: {}",
+                result.getSuccessCount(), userId, result.getFailureCount());
 
-            // Optional: Handle invalid tokens from BatchResponse if needed
-        } catch (FirebaseMessagingException e) {
-            log.error("Failed to send multicast notification to user {}: {}", userId, e.getMessage());
+        if (result.getFailureCount() > 0) {
+            pruneInvalidTokens(userId, result);
+        }
+
+        // Retry only if some token could still succeed later
+        return result.getSuccessCount() > 0 || result.getResults().stream()
+                .allMatch(r -> r.isSuccess() || r.getFailureReason().isPermanent());
+    }
+
+    /**
+     * Count per-token failures by reason and deactivate tokens reported as
+     * permanently invalid, so they are not retried on every message.
+     */
+    private void pruneInvalidTokens(Long userId, PushResult result) {
+        List<String> invalidTokens = new ArrayList<>();
+        int invalidArgumentCount = 0;
+
+        for (PushResult.TokenResult tokenResult : result.getResults()) {
+            if (tokenResult.isSuccess()) {
+                continue;
+            }
+
+            PushResult.FailureReason reason = tokenResult.getFailureReason();
+            meterRegistry.counter("push.token.failures", "reason", reason.name().toLowerCase()).increment();
+
+            if (reason.isPermanent()) {
+                invalidTokens.add(tokenResult.getToken());
+                if (reason == PushResult.FailureReason.INVALID_ARGUMENT) {
+                    invalidArgumentCount++;
+                }
+            }
+        }
+
+        // INVALID_ARGUMENT on every token points at the message itself, not the tokens
+        if (invalidArgumentCount == result.getResults().size()) {
+            log.warn("All push tokens rejected with INVALID_ARGUMENT for user {}, not pruning", userId);
+            return;
+        }
+
+        if (!invalidTokens.isEmpty()) {
+            int deactivated = deviceTokenService.deactivateInvalidTokens(userId, invalidTokens);
+            meterRegistry.counter("push.tokens.pruned").increment(deactivated);
+            log.info("Deactivated {} invalid push tokens for user {}", deactivated, userId);
         }
     }
 
@@ -63,20 +180,64 @@ public class FirebaseService {
      * Send a notification to a specific token
      */
     public void sendNotificationToToken(String fcmToken, String title, String body, Map<String, String> data) {
-        Message message = Message.builder()
-                .setNotification(Notification.builder()
-                        .setTitle(title)
-                        .setBody(body)
-                        .build())
-                .putAllData(data)
-                .setToken(fcmToken)
+        PushMessage message = PushMessage.builder()
+                .tokens(List.of(fcmToken))
+                .title(title)
+                .body(body)
+                .data(data)
                 .build();
 
         try {
-            String response = FirebaseMessaging.getInstance().send(message);
-            log.info("Successfully sent push notification to token: {}", response);
-        } catch (FirebaseMessagingException e) {
+            PushResult result = send(null, message);
+            log.info("Sent push notification to token. Success: {}", result.getSuccessCount() == 1);
+        } catch (Exception e) {
             log.error("Failed to send push notification to token: {}", e.getMessage());
         }
     }
+
+    /**
+     * Guarded FCM send, recorded as a PushSend flight event
+     */
+    private PushResult send(Long userId, PushMessage message) throws Exception {
+        FlightEvents.PushSend event = new FlightEvents.PushSend();
+        event.begin();
+        PushResult result = null;
+        String outcome = "SENT";
+        try {
+            result = guard(pushCircuitBreaker, pushBulkhead, () -> pushGateway.send(message)).call();
+            return result;
+        } catch (Exception e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.userId = userId != null ? userId : 0;
+                event.tokenCount = message.getTokens().size();
+                if (result != null) {
+                    event.successCount = result.getSuccessCount();
+                    event.failureCount = result.getFailureCount();
+                }
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Bulkhead inside the breaker: rejected calls never reach Firebase, and a full
+     * bulkhead is not counted as a Firebase failure (see FirebaseFailurePredicate)
+     * The whole guarded call counts as Firebase time for the current request.
+     */
+    private static <T> Callable<T> guard(CircuitBreaker circuitBreaker, Bulkhead bulkhead, Callable<T> call) {
+        Callable<T> guarded = CircuitBreaker.decorateCallable(circuitBreaker, Bulkhead.decorateCallable(bulkhead, call));
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return guarded.call();
+            } finally {
+                RequestTimings.record(RequestTimings.Backend.FIREBASE, System.nanoTime() - start);
+            }
+        };
+    }
 }
@@ -0,0 +1,92 @@
+package com.takeone.backend.service;
+
+import com.takeone.backend.config.PushProperties;
+import com.takeone.backend.dto.PushMessage;
+import com.takeone.backend.dto.PushResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for FCM, used to benchmark and soak-test the push pipeline
+ * without calling Google.
+ * Simulates latency, whole-request errors and invalid-token responses as
+ * configured under app.push.local.*, and records throughput in Micrometer.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.push.gateway", havingValue = "local")
+public class LocalPushGateway implements PushGateway {
+
+    private final PushProperties.Local settings;
+    private final Counter messagesCounter;
+    private final Counter tokensCounter;
+    private final Counter errorsCounter;
+    private final Timer sendTimer;
+
+    public LocalPushGateway(PushProperties pushProperties, MeterRegistry meterRegistry) {
+        this.settings = pushProperties.getLocal();
+        this.messagesCounter = meterRegistry.counter("push.local.messages");
+        this.tokensCounter = meterRegistry.counter("push.local.tokens");
+        this.errorsCounter = meterRegistry.counter("push.local.errors");
+        this.sendTimer = meterRegistry.timer("push.local.send");
+        log.warn("Local push gateway active - notifications are NOT delivered to devices");
+    }
+
+    @Override
+    public PushResult send(PushMessage message) throws PushGatewayException {
+        long start = System.nanoTime();
+        try {
+            simulateLatency();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < settings.getErrorRate()) {
+                errorsCounter.increment();
+                throw new PushGatewayException("Simulated gateway failure");
+            }
+
+            List<PushResult.TokenResult> results = new ArrayList<>(message.getTokens().size());
+            for (String token : message.getTokens()) {
+                if (token.startsWith(settings.getInvalidTokenPrefix())
+                        || random.nextDouble() < settings.getInvalidTokenRate()) {
+                    results.add(PushResult.TokenResult.failure(token, PushResult.FailureReason.UNREGISTERED));
+                } else {
+                    results.add(PushResult.TokenResult.success(token));
+                }
+            }
+
+            messagesCounter.increment();
+            tokensCounter.increment(results.size());
+            return new PushResult(results);
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void simulateLatency() throws PushGatewayException {
+        Duration latency = settings.getLatency();
+        Duration jitter = settings.getLatencyJitter();
+        long millis = latency.toMillis();
+        if (!jitter.isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+        }
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PushGatewayException("Interrupted while simulating latency", e);
+        }
+    }
+}
@@ -1,17 +1,18 @@
 package com.takeone.backend.service;
 
+import com.takeone.backend.config.ReplicaRoutingDataSource;
 import com.takeone.backend.dto.MessagePayload;
 import com.takeone.backend.entity.PendingMessage;
 import com.takeone.backend.repository.PendingMessageRepository;
+import com.takeone.backend.util.FlightEvents;
+import com.takeone.backend.util.HotPathLogger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Slf4j
 @Service
@@ -20,7 +21,9 @@ public class MessageRelayService {
 
     private final PendingMessageRepository pendingMessageRepository;
     private final UserStatusService userStatusService;
-    private final FirebaseService firebaseService;
+    private final PushOutboxService pushOutboxService;
+    private final HotPathLogger hotPathLogger;
+    private final DeliveryLatencyRecorder deliveryLatencyRecorder;
 
     /**
      * Process an incoming message from the WebSocket.
@@ -29,21 +32,38 @@ public class MessageRelayService {
      */
     @Transactional
     public boolean handleIncomingMessage(MessagePayload payload) {
-        log.info("Relaying message {} from {} to {}", payload.getMessageId(), payload.getSenderId(),
-                payload.getRecipientId());
+        FlightEvents.RelayMessage event = new FlightEvents.RelayMessage();
+        event.begin();
+        boolean isRecipientOnline = false;
+        try {
+            hotPathLogger.info(log, "relay.incoming", payload.getSenderId(), payload.getRecipientId(),
+                    "Relaying message {} from {} to {}", payload.getMessageId(), payload.getSenderId(),
+                    payload.getRecipientId());
 
-        boolean isRecipientOnline = userStatusService.isUserOnline(payload.getRecipientId());
+            isRecipientOnline = userStatusService.isUserOnline(payload.getRecipientId());
 
-        if (isRecipientOnline) {
-            // Logic to send via WebSocket will be in the Handler,
-            // but we might still save it briefly or check for delivery ack.
-            // For now, if online, we assume the handler will push it.
-            return true;
-        } else {
-            // Recipient offline: Store in MySQL and send Push Notification
-            savePendingMessage(payload);
-            sendPushNotification(payload);
-            return false;
+            if (isRecipientOnline) {
+                // Logic to send via WebSocket will be in the Handler,
+                // but we might still save it briefly or check for delivery ack.
+                // For now, if online, we assume the handler will push it.
+                return true;
+            } else {
+                // Recipient offline: Store in MySQL and queue Push Notification (same transaction)
+                savePendingMessage(payload);
+                pushOutboxService.enqueue(payload);
+                return false;
+            }
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.messageId = payload.getMessageId();
+                event.messageType = payload.getType();
+                event.senderId = payload.getSenderId() != null ? payload.getSenderId() : 0;
+                event.recipientId = payload.getRecipientId() != null ? payload.getRecipientId() : 0;
+                event.recipientOnline = isRecipientOnline;
+                event.traceId = payload.getTraceId();
+                event.commit();
+            }
         }
     }
 
@@ -54,23 +74,14 @@ public class MessageRelayService {
                 .recipientId(payload.getRecipientId())
                 .encryptedContent(payload.getEncryptedContent())
                 .messageType(payload.getType())
+                .traceId(payload.getTraceId())
+                .sentAt(payload.getTimestamp())
                 .createdAt(LocalDateTime.now())
                 .build();
         pendingMessageRepository.save(pending);
-        log.info("Stored pending message {} for offline user {}", payload.getMessageId(), payload.getRecipientId());
-    }
-
-    private void sendPushNotification(MessagePayload payload) {
-        Map<String, String> data = new HashMap<>();
-        data.put("type", "NEW_MESSAGE");
-        data.put("senderId", String.valueOf(payload.getSenderId()));
-        data.put("messageId", payload.getMessageId());
-
-        firebaseService.sendNotificationToUser(
-                payload.getRecipientId(),
-                "New Message",
-                "You have a new encrypted message",
-                data);
+        deliveryLatencyRecorder.record(DeliveryLatencyRecorder.Stage.STORE, payload.getTimestamp());
+        hotPathLogger.info(log, "relay.stored", payload.getRecipientId(), payload.getSenderId(),
+                "Stored pending message {} for offline user {}", payload.getMessageId(), payload.getRecipientId());
     }
 
     @Transactional
@@ -78,11 +89,20 @@ public class MessageRelayService {
         pendingMessageRepository.findByRecipientIdAndMessageId(recipientId, messageId)
                 .ifPresent(msg -> {
                     pendingMessageRepository.delete(msg);
-                    log.info("Message {} delivered to {}, removed from pending", messageId, recipientId);
+                    deliveryLatencyRecorder.record(DeliveryLatencyRecorder.Stage.DELIVERY, msg.getSentAt());
+                    hotPathLogger.info(log, "relay.delivered", recipientId, msg.getSenderId(),
+                            "Message {} delivered to {}, removed from pending", messageId, recipientId);
                 });
     }
 
+    /**
+     * Pending messages to replay on connect
+     * Read from the primary: a message stored just before the recipient connects
+     * may not have reached the replica, and nothing retries it once they are online.
+     */
+    @Transactional(readOnly = true)
     public List<PendingMessage> getPendingMessages(Long userId) {
-        return pendingMessageRepository.findByRecipientIdOrderByCreatedAtAsc(userId);
+        return ReplicaRoutingDataSource.onPrimary(
+                () -> pendingMessageRepository.findByRecipientIdOrderByCreatedAtAsc(userId));
     }
 }
@@ -0,0 +1,7 @@
+package com.takeone.backend.service;
+
+/**
+ * Published when a user's public profile fields may have changed
+ */
+public record ProfileChangedEvent(Long userId) {
+}
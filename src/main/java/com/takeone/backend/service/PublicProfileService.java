@@ -0,0 +1,153 @@
+package com.takeone.backend.service;
+
+import com.takeone.backend.config.NearCache;
+import com.takeone.backend.dto.PublicProfileCard;
+import com.takeone.backend.dto.PublicProfilesResponse;
+import com.takeone.backend.dto.UserProfileResponse;
+import com.takeone.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk public profile cards for chat lists and discovery
+ * Ids are served from the profile cache - local tier, then one Redis MGET - and
+ * the misses from one IN-query projection; usernames go straight to a projection.
+ * Cards are built from non-sensitive columns only, so nothing is decrypted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PublicProfileService {
+
+    private static final String PROFILES_CACHE = "profiles";
+    // RedisCacheConfiguration's default key prefix: "<cache name>::"
+    private static final String PROFILES_KEY_PREFIX = PROFILES_CACHE + "::";
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, UserProfileResponse> profileCacheRedisTemplate;
+
+    /**
+     * Resolve user ids and usernames to profile cards
+     * Cards are returned in request order (ids first), each user at most once
+     */
+    @Transactional(readOnly = true)
+    public PublicProfilesResponse getPublicProfiles(List<Long> userIds, List<String> usernames) {
+        Map<Long, PublicProfileCard> cards = new LinkedHashMap<>();
+
+        if (userIds != null && !userIds.isEmpty()) {
+            cards.putAll(findByIds(new LinkedHashSet<>(userIds)));
+        }
+
+        if (usernames != null && !usernames.isEmpty()) {
+            Set<String> normalized = new LinkedHashSet<>();
+            usernames.forEach(u -> normalized.add(u.toLowerCase().trim()));
+
+            Map<String, PublicProfileCard> byUsername = new LinkedHashMap<>();
+            userRepository.findPublicProfileCardsByUsernames(normalized)
+                    .forEach(card -> byUsername.put(card.getUsername(), card));
+            for (String username : normalized) {
+                PublicProfileCard card = byUsername.get(username);
+                if (card != null) {
+                    cards.putIfAbsent(card.getId(), card);
+                }
+            }
+        }
+
+        return PublicProfilesResponse.builder()
+                .profiles(new ArrayList<>(cards.values()))
+                .build();
+    }
+
+    private Map<Long, PublicProfileCard> findByIds(Collection<Long> userIds) {
+        Map<Long, PublicProfileCard> found = new LinkedHashMap<>();
+        NearCache nearCache = nearProfileCache();
+
+        // 1. Local tier
+        List<Long> remaining = new ArrayList<>();
+        for (Long userId : userIds) {
+            Object local = nearCache != null ? nearCache.getLocalValue(userId) : null;
+            if (local instanceof UserProfileResponse profile) {
+                addCard(found, userId, profile);
+            } else {
+                remaining.add(userId);
+            }
+        }
+
+        // 2. Redis, one MGET
+        List<Long> misses = new ArrayList<>();
+        if (!remaining.isEmpty()) {
+            List<UserProfileResponse> cached = profileCacheRedisTemplate.opsForValue().multiGet(
+                    remaining.stream().map(id -> PROFILES_KEY_PREFIX + id).toList());
+            for (int i = 0; i < remaining.size(); i++) {
+                UserProfileResponse profile = cached != null ? cached.get(i) : null;
+                if (profile != null) {
+                    addCard(found, remaining.get(i), profile);
+                } else {
+                    misses.add(remaining.get(i));
+                }
+            }
+        }
+
+        // 3. MySQL, one IN-query projection
+        if (!misses.isEmpty()) {
+            Map<Long, PublicProfileCard> loaded = new LinkedHashMap<>();
+            userRepository.findPublicProfileCardsByIds(misses).forEach(card -> loaded.put(card.getId(), card));
+            misses.forEach(id -> {
+                PublicProfileCard card = loaded.get(id);
+                if (card != null) {
+                    found.put(id, card);
+                }
+            });
+        }
+
+        log.debug("Public profiles: {} requested, {} local, {} redis, {} db",
+                userIds.size(), userIds.size() - remaining.size(), remaining.size() - misses.size(), misses.size());
+
+        // Keep request order
+        Map<Long, PublicProfileCard> ordered = new LinkedHashMap<>();
+        userIds.forEach(id -> {
+            PublicProfileCard card = found.get(id);
+            if (card != null) {
+                ordered.put(id, card);
+            }
+        });
+        return ordered;
+    }
+
+    private static void addCard(Map<Long, PublicProfileCard> found, Long userId, UserProfileResponse profile) {
+        if (Boolean.FALSE.equals(profile.getIsActive())) {
+            return;
+        }
+        found.put(userId, PublicProfileCard.builder()
+                .id(profile.getId())
+                .username(profile.getUsername())
+                .displayName(profile.getDisplayName())
+                .profilePictureUrl(profile.getProfilePictureUrl())
+                .accountType(profile.getAccountType())
+                .location(profile.getLocation())
+                .build());
+    }
+
+    private NearCache nearProfileCache() {
+        Cache cache = cacheManager.getCache(PROFILES_CACHE);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache instanceof NearCache nearCache ? nearCache : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.takeone.backend.service;
+
+import com.takeone.backend.dto.PushMessage;
+import com.takeone.backend.dto.PushResult;
+
+/**
+ * Outbound push delivery.
+ * Selected with app.push.gateway: "firebase" (default) sends through FCM,
+ * "local" uses an in-process stand-in for load and soak testing.
+ */
+public interface PushGateway {
+
+    /**
+     * Send a message to all of its tokens
+     *
+     * @return per-token results, in token order
+     * @throws PushGatewayException if the request failed as a whole
+     */
+    PushResult send(PushMessage message) throws PushGatewayException;
+}
@@ -0,0 +1,18 @@
+package com.takeone.backend.service;
+
+/**
+ * Thrown when a push could not be handed to the gateway at all
+ * (as opposed to individual tokens being rejected)
+ */
+public class PushGatewayException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public PushGatewayException(String message) {
+        super(message);
+    }
+
+    public PushGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
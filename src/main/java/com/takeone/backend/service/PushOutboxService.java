@@ -0,0 +1,240 @@
+package com.takeone.backend.service;
+
+import com.takeone.backend.config.PushProperties;
+import com.takeone.backend.dto.MessagePayload;
+import com.takeone.backend.entity.PushOutbox;
+import com.takeone.backend.entity.PushOutboxStatus;
+import com.takeone.backend.repository.PushOutboxRepository;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable, retried delivery of new-message pushes.
+ * Pushes are written to push_outbox in the caller's transaction and sent later
+ * by PushOutboxDispatcher, so an FCM outage delays notifications instead of
+ * dropping them. Messages to the same recipient within the coalescing window
+ * share one row and become a single notification.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PushOutboxService {
+
+    private final PushOutboxRepository pushOutboxRepository;
+    private final FirebaseService firebaseService;
+    private final PushProperties pushProperties;
+    private final MeterRegistry meterRegistry;
+    private final DeliveryLatencyRecorder deliveryLatencyRecorder;
+
+    /**
+     * Record a push for an offline recipient.
+     * Joins the caller's transaction, so the push exists if and only if the
+     * pending message does.
+     */
+    @Transactional
+    public void enqueue(MessagePayload payload) {
+        Duration window = pushProperties.getCoalesceWindow();
+        LocalDateTime dueAt = LocalDateTime.now();
+        if (window != null && !window.isNegative()) {
+            dueAt = dueAt.plus(window);
+        }
+
+        pushOutboxRepository.upsertPending(
+                payload.getRecipientId(),
+                payload.getSenderId(),
+                payload.getMessageId(),
+                dueAt,
+                payload.getTraceId(),
+                payload.getTimestamp());
+    }
+
+    /**
+     * Claim due rows for this node.
+     * Rows are locked with SKIP LOCKED, so concurrent dispatchers get disjoint
+     * batches, then leased as IN_FLIGHT and closed for further coalescing.
+     * The lease expiry is kept in next_attempt_at at the column's millisecond
+     * precision, so the outcome can be written only while this lease still holds.
+     * Nothing is claimed while the FCM circuit breaker is open; rows stay queued.
+     */
+    @Transactional
+    public List<PushOutbox> claimDueBatch() {
+        if (!firebaseService.isPushAvailable()) {
+            return Collections.emptyList();
+        }
+
+        PushProperties.Outbox settings = pushProperties.getOutbox();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(settings.getLease()).truncatedTo(ChronoUnit.MILLIS);
+
+        List<PushOutbox> batch = pushOutboxRepository.lockDueBatch(now, settings.getBatchSize());
+        batch.forEach(row -> {
+            row.setStatus(PushOutboxStatus.IN_FLIGHT);
+            row.setCoalesceKey(null);
+            row.setAttempts(row.getAttempts() + 1);
+            row.setNextAttemptAt(leaseUntil);
+        });
+        return pushOutboxRepository.saveAll(batch);
+    }
+
+    /**
+     * Send one claimed row and record the outcome
+     * Rows whose lease ran out while earlier rows of the batch were sent are left
+     * to whichever dispatcher retakes them. Logs carry the trace id of the latest
+     * message the push is for.
+     */
+    public void dispatch(PushOutbox row) {
+        if (!LocalDateTime.now().isBefore(row.getNextAttemptAt())) {
+            meterRegistry.counter("push.outbox.dispatched", "outcome", "lease_expired").increment();
+            log.debug("Lease on push outbox row {} expired before it was sent", row.getId());
+            return;
+        }
+        if (row.getTraceId() != null) {
+            MDC.put("traceId", row.getTraceId());
+        }
+        try {
+            boolean delivered = firebaseService.deliverNotificationToUser(
+                    row.getRecipientId(),
+                    "New Message",
+                    buildBody(row.getMessageCount()),
+                    buildData(row),
+                    pushProperties.getCollapseKey());
+
+            if (delivered) {
+                markSent(row);
+            } else {
+                markFailed(row, "All tokens rejected with transient errors");
+            }
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // Firebase is shedding load: not the row's fault, keep it queued
+            defer(row, e.getMessage());
+        } catch (PushGatewayException e) {
+            markFailed(row, e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error dispatching push outbox row {}: {}", row.getId(), e.getMessage(), e);
+            markFailed(row, e.getMessage());
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+
+    /**
+     * Purge sent and dead rows past the retention period
+     */
+    @Transactional
+    public int purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(pushProperties.getOutbox().getRetention());
+        return pushOutboxRepository.deleteFinishedBefore(cutoff);
+    }
+
+    private void markSent(PushOutbox row) {
+        if (!complete(row, PushOutboxStatus.SENT, row.getAttempts(), row.getNextAttemptAt(), null)) {
+            return;
+        }
+        meterRegistry.counter("push.outbox.dispatched", "outcome", "sent").increment();
+        // Oldest coalesced message: how long the slowest of them waited for its push
+        deliveryLatencyRecorder.record(DeliveryLatencyRecorder.Stage.PUSH, row.getFirstSentAt());
+        if (row.getMessageCount() > 1) {
+            log.debug("Sent coalesced push for {} messages to user {}", row.getMessageCount(), row.getRecipientId());
+        }
+    }
+
+    private void markFailed(PushOutbox row, String error) {
+        PushProperties.Outbox settings = pushProperties.getOutbox();
+
+        if (row.getAttempts() >= settings.getMaxAttempts()) {
+            if (!complete(row, PushOutboxStatus.DEAD, row.getAttempts(), row.getNextAttemptAt(), error)) {
+                return;
+            }
+            meterRegistry.counter("push.outbox.dispatched", "outcome", "dead").increment();
+            log.error("Push outbox row {} for user {} is dead after {} attempts: {}",
+                    row.getId(), row.getRecipientId(), row.getAttempts(), error);
+        } else {
+            Duration backoff = backoff(row.getAttempts(), settings);
+            if (!complete(row, PushOutboxStatus.PENDING, row.getAttempts(), LocalDateTime.now().plus(backoff), error)) {
+                return;
+            }
+            meterRegistry.counter("push.outbox.dispatched", "outcome", "retry").increment();
+            log.warn("Push outbox row {} for user {} failed (attempt {}), retrying in {} ms: {}",
+                    row.getId(), row.getRecipientId(), row.getAttempts(), backoff.toMillis(), error);
+        }
+    }
+
+    private void defer(PushOutbox row, String reason) {
+        // Claiming counted an attempt that never happened
+        LocalDateTime retryAt = LocalDateTime.now().plus(pushProperties.getOutbox().getInitialBackoff());
+        if (complete(row, PushOutboxStatus.PENDING, row.getAttempts() - 1, retryAt, reason)) {
+            meterRegistry.counter("push.outbox.dispatched", "outcome", "deferred").increment();
+        }
+    }
+
+    /**
+     * Write the outcome if this dispatcher still holds the row's lease
+     * Returns false when the lease ran out during the send: another dispatcher may
+     * have retaken the row, and its result must not be overwritten.
+     */
+    private boolean complete(PushOutbox row, PushOutboxStatus status, int attempts,
+                             LocalDateTime nextAttemptAt, String error) {
+        int updated = pushOutboxRepository.completeLease(row.getId(), row.getNextAttemptAt(), status,
+                attempts, nextAttemptAt, truncate(error), LocalDateTime.now());
+        if (updated == 0) {
+            meterRegistry.counter("push.outbox.dispatched", "outcome", "lease_lost").increment();
+            log.warn("Lease on push outbox row {} expired during the send, outcome {} not recorded",
+                    row.getId(), status);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half of the capped delay is fixed,
+     * the other half random, so retries of a failed burst spread out over time.
+     */
+    private Duration backoff(int attempts, PushProperties.Outbox settings) {
+        long initial = settings.getInitialBackoff().toMillis();
+        long max = settings.getMaxBackoff().toMillis();
+        int exponent = Math.min(attempts - 1, 30);
+        long capped = Math.min(max, initial * (1L << exponent));
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private String buildBody(int count) {
+        return count == 1
+                ? "You have a new encrypted message"
+                : "You have " + count + " new encrypted messages";
+    }
+
+    private Map<String, String> buildData(PushOutbox row) {
+        Map<String, String> data = new HashMap<>();
+        data.put("type", "NEW_MESSAGE");
+        data.put("senderId", String.valueOf(row.getSenderId()));
+        data.put("messageId", row.getMessageId());
+        data.put("count", String.valueOf(row.getMessageCount()));
+        if (row.getTraceId() != null) {
+            data.put("traceId", row.getTraceId());
+        }
+        return data;
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
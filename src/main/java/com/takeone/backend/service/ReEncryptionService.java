@@ -0,0 +1,135 @@
+package com.takeone.backend.service;
+
+import com.takeone.backend.entity.JobCheckpoint;
+import com.takeone.backend.entity.User;
+import com.takeone.backend.repository.JobCheckpointRepository;
+import com.takeone.backend.repository.UserRepository;
+import com.takeone.backend.util.AttributeEncryptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Rewrites encrypted User columns under the current key version
+ * Walks the users table in primary-key order, one bounded batch per call,
+ * decrypting with whichever key version a value was written with (or the legacy
+ * ECB scheme) and re-encrypting with the current one. Each column is written
+ * with a compare-and-set UPDATE, so a profile change committed while the batch
+ * runs wins over the re-encrypted old value; it was written under the current
+ * key anyway. Progress is checkpointed per target version, so a later
+ * rotation starts a fresh pass.
+ */
+@Slf4j
+@Service
+public class ReEncryptionService {
+
+    private static final String JOB_PREFIX = "reencrypt-v";
+
+    private final UserRepository userRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final String jobName;
+    private final int batchSize;
+    private final Counter rowsCounter;
+    private final Counter fieldsCounter;
+    private final AtomicLong lastId = new AtomicLong();
+    private final AtomicLong maxId = new AtomicLong();
+
+    public ReEncryptionService(UserRepository userRepository,
+                               JobCheckpointRepository jobCheckpointRepository,
+                               AttributeEncryptor attributeEncryptor,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.security.reencryption.batch-size:100}") int batchSize) {
+        this.userRepository = userRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.jobName = JOB_PREFIX + attributeEncryptor.getCurrentVersion();
+        this.batchSize = batchSize;
+        this.rowsCounter = meterRegistry.counter("encryption.reencrypt.rows");
+        this.fieldsCounter = meterRegistry.counter("encryption.reencrypt.fields");
+        Gauge.builder("encryption.reencrypt.progress", this, ReEncryptionService::progress)
+                .description("Fraction of the users id range re-encrypted under the current key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Re-encrypt the next batch
+     *
+     * @return false once the whole table is under the current key
+     */
+    @Transactional
+    public boolean reEncryptBatch() {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(jobName)
+                .orElseGet(() -> JobCheckpoint.start(jobName));
+        if (checkpoint.getCompleted()) {
+            lastId.set(maxId.get());
+            return false;
+        }
+        if (maxId.get() == 0) {
+            maxId.set(userRepository.findMaxId());
+        }
+
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(checkpoint.getLastId(), Limit.of(batchSize));
+        if (users.isEmpty()) {
+            checkpoint.setCompleted(true);
+            jobCheckpointRepository.save(checkpoint);
+            lastId.set(maxId.get());
+            log.info("Re-encryption to key version {} completed, {} rows processed",
+                    jobName.substring(JOB_PREFIX.length()), checkpoint.getProcessed());
+            return false;
+        }
+
+        int rewritten = 0;
+        for (User user : users) {
+            Long id = user.getId();
+            int fields = 0;
+            fields += reEncrypt(user.getEmailCiphertext(),
+                    (old, current) -> userRepository.replaceEmailCiphertext(id, old, current));
+            fields += reEncrypt(user.getMobileCiphertext(),
+                    (old, current) -> userRepository.replaceMobileCiphertext(id, old, current));
+            fields += reEncrypt(user.getFirstNameCiphertext(),
+                    (old, current) -> userRepository.replaceFirstNameCiphertext(id, old, current));
+            fields += reEncrypt(user.getLastNameCiphertext(),
+                    (old, current) -> userRepository.replaceLastNameCiphertext(id, old, current));
+            fields += reEncrypt(user.getDobCiphertext(),
+                    (old, current) -> userRepository.replaceDobCiphertext(id, old, current));
+            if (fields > 0) {
+                rewritten++;
+                fieldsCounter.increment(fields);
+            }
+        }
+
+        checkpoint.setLastId(users.get(users.size() - 1).getId());
+        checkpoint.setProcessed(checkpoint.getProcessed() + users.size());
+        jobCheckpointRepository.save(checkpoint);
+        rowsCounter.increment(rewritten);
+        lastId.set(checkpoint.getLastId());
+
+        log.debug("Re-encryption: {} of {} rows rewritten, up to id {}", rewritten, users.size(), checkpoint.getLastId());
+        return true;
+    }
+
+    /**
+     * @return 1 if the column was rewritten, 0 if it was current or changed concurrently
+     */
+    private static int reEncrypt(String ciphertext, BiFunction<String, String, Integer> replace) {
+        String current = AttributeEncryptor.reEncrypt(ciphertext);
+        if (Objects.equals(current, ciphertext)) {
+            return 0;
+        }
+        return replace.apply(ciphertext, current);
+    }
+
+    private double progress() {
+        long max = maxId.get();
+        return max == 0 ? 0.0 : Math.min(1.0, (double) lastId.get() / max);
+    }
+}
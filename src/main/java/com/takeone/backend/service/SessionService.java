@@ -1,12 +1,13 @@
 package com.takeone.backend.service;
 
+import com.takeone.backend.dto.SessionAuthInfo;
 import com.takeone.backend.entity.Session;
 import com.takeone.backend.entity.User;
 import com.takeone.backend.repository.SessionRepository;
+import com.takeone.backend.util.FlightEvents;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -53,48 +54,50 @@ public class SessionService {
 
     /**
      * Validate session token and refresh last accessed time
+     * Reads a projection instead of the Session/User entities, so authentication
+     * decrypts nothing, and records the access with a single UPDATE.
      */
     @Transactional
-    public Session validateAndRefreshSession(String token, HttpServletRequest request) {
-        Optional<Session> sessionOpt = sessionRepository.findByRefreshTokenAndIsActiveTrue(token);
-
-        if (sessionOpt.isEmpty()) {
-            log.debug("Session not found or inactive for token");
-            return null;
-        }
-
-        Session session = sessionOpt.get();
-
-        // Ensure user is loaded (JOIN FETCH in query should handle this, but being
-        // explicit)
-        User user = session.getUser();
-        if (user == null) {
-            log.warn("Session has null user reference");
-            return null;
-        }
+    public SessionAuthInfo validateAndRefreshSession(String token, HttpServletRequest request) {
+        FlightEvents.SessionValidation event = new FlightEvents.SessionValidation();
+        event.begin();
+        SessionAuthInfo info = null;
+        String outcome = "ERROR";
+        try {
+            Optional<SessionAuthInfo> infoOpt = sessionRepository.findAuthInfoByRefreshToken(token);
+
+            if (infoOpt.isEmpty()) {
+                log.debug("Session not found or inactive for token");
+                outcome = "NOT_FOUND";
+                return null;
+            }
 
-        // Explicitly initialize the user proxy to avoid lazy loading issues
-        // This is safer than calling getUsername() and ignoring the result
-        Hibernate.initialize(user);
+            info = infoOpt.get();
 
-        // Check if session has expired
-        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
-            log.info("Session expired for user: {}", session.getUser().getUsername());
-            session.setIsActive(false);
-            sessionRepository.save(session);
-            return null;
-        }
+            // Check if session has expired
+            if (info.isExpired()) {
+                log.info("Session expired for user: {}", info.getUsername());
+                sessionRepository.deactivateSession(info.getSessionId());
+                outcome = "EXPIRED";
+                return null;
+            }
 
-        // Update last accessed time and IP if changed
-        session.setLastAccessedAt(LocalDateTime.now());
-        String currentIp = extractIpAddress(request);
-        if (!currentIp.equals(session.getIpAddress())) {
-            session.setIpAddress(currentIp);
+            // Update last accessed time and IP if changed
+            sessionRepository.touchSession(info.getSessionId(), LocalDateTime.now(), extractIpAddress(request));
+
+            outcome = "VALID";
+            return info;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                if (info != null) {
+                    event.sessionId = info.getSessionId();
+                    event.userId = info.getUserId();
+                }
+                event.outcome = outcome;
+                event.commit();
+            }
         }
-
-        sessionRepository.save(session);
-
-        return session;
     }
 
     /**
@@ -209,8 +212,9 @@ public class SessionService {
 
     /**
      * Generate cryptographically secure random token
+     * Public so the session-token benchmark can reach it.
      */
-    private String generateSecureToken() {
+    public static String generateSecureToken() {
         byte[] randomBytes = new byte[TOKEN_LENGTH];
         secureRandom.nextBytes(randomBytes);
         return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
@@ -1,15 +1,20 @@
 package com.takeone.backend.service;
 
+import com.takeone.backend.config.ReplicaRoutingDataSource;
 import com.takeone.backend.dto.UserProfileRequest;
 import com.takeone.backend.dto.UserProfileResponse;
+import com.takeone.backend.entity.AccountType;
 import com.takeone.backend.entity.User;
 import com.takeone.backend.repository.UserRepository;
 import com.takeone.backend.util.HashUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,8 +23,12 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class UserProfileService {
 
+    private static final String PROFILES_CACHE = "profiles";
+
     private final UserRepository userRepository;
     private final UsernameService usernameService;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static @NonNull String getNormalizedUsername(String username) {
         String normalizedUsername = username.toLowerCase().trim();
@@ -37,18 +46,21 @@ public class UserProfileService {
     }
 
     /**
-     * Get user profile with Redis caching
-     * Cache key: "profiles::userId"
+     * Get user profile with two-level (local + Redis) caching
+     * Cache key: "profiles::userId"; concurrent misses for the same user load once per node
+     * Loaded from the primary: the result is shared by every node for the cache TTL,
+     * so it must not be a replica row from before a write on another node.
      */
-    @Cacheable(value = "profiles", key = "#userId")
+    @Cacheable(value = "profiles", key = "#userId", sync = true)
     @Transactional(readOnly = true)
     public UserProfileResponse getUserProfile(Long userId) {
         log.info("Fetching profile for userId: {}", userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        return buildProfileResponse(user);
+        return ReplicaRoutingDataSource.onPrimary(() -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            return buildProfileResponse(user);
+        });
     }
 
     /**
@@ -84,8 +96,11 @@ public class UserProfileService {
         // Invalidate username cache
         if (request.getUsername() != null) {
             usernameService.invalidateUsernameCache(request.getUsername());
+            usernameService.markUsernameTaken(request.getUsername());
         }
 
+        eventPublisher.publishEvent(new ProfileChangedEvent(userId));
+
         log.info("Profile created successfully for userId: {}", userId);
         return buildProfileResponse(savedUser);
     }
@@ -102,6 +117,50 @@ public class UserProfileService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
+        applyProfileChanges(user, request);
+
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new ProfileChangedEvent(userId));
+
+        log.info("Profile updated successfully for userId: {}", userId);
+        return buildProfileResponse(savedUser);
+    }
+
+    /**
+     * Partially update user profile (PATCH)
+     * Only the fields present in the request are written: the UPDATE covers just the
+     * changed columns and only modified encrypted fields are encrypted. The cache
+     * entry is evicted rather than patched, since a concurrent PATCH on another node
+     * may have changed fields a cached copy does not know about; the response comes
+     * from the flushed entity, so it matches the row.
+     */
+    @Transactional
+    public UserProfileResponse patchUserProfile(Long userId, UserProfileRequest request) {
+        log.info("Patching profile for userId: {}", userId);
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        applyProfileChanges(user, request);
+
+        // Flush now so @UpdateTimestamp is populated for the response
+        userRepository.saveAndFlush(user);
+        eventPublisher.publishEvent(new ProfileChangedEvent(userId));
+
+        // Transaction-aware cache: evicted only after commit, the next read reloads it
+        Cache cache = cacheManager.getCache(PROFILES_CACHE);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+
+        log.info("Profile patched successfully for userId: {}", userId);
+        return buildProfileResponse(user);
+    }
+
+    /**
+     * Apply username change (if any) and profile fields from the request
+     */
+    private void applyProfileChanges(User user, UserProfileRequest request) {
         // If username is being changed, validate it
         if (request.getUsername() != null &&
                 !request.getUsername().equals(user.getUsername())) {
@@ -113,15 +172,11 @@ public class UserProfileService {
                 usernameService.invalidateUsernameCache(oldUsername);
             }
             usernameService.invalidateUsernameCache(request.getUsername());
+            usernameService.markUsernameTaken(request.getUsername());
         }
 
         // Update profile fields
         updateUserFields(user, request);
-
-        User savedUser = userRepository.save(user);
-
-        log.info("Profile updated successfully for userId: {}", userId);
-        return buildProfileResponse(savedUser);
     }
 
     /**
@@ -131,8 +186,8 @@ public class UserProfileService {
         // Normalize username
         String normalizedUsername = getNormalizedUsername(username);
 
-        // Check availability
-        if (!usernameService.isUsernameAvailable(normalizedUsername)) {
+        // Check availability (bypasses the in-memory filter, which may lag other nodes)
+        if (!usernameService.isUsernameAvailableStrict(normalizedUsername)) {
             throw new IllegalArgumentException("Username is already taken");
         }
 
@@ -174,8 +229,23 @@ public class UserProfileService {
         }
 
         if (request.getAccountType() != null) {
-            user.setAccountType(request.getAccountType());
+            user.setAccountType(validateAccountType(user.getAccountType(), request.getAccountType()));
+        }
+    }
+
+    /**
+     * Account type a user may set on their own profile
+     * Any type except ADMIN, which is never self-assigned, and NEW_USER, which only
+     * a fresh account has.
+     */
+    private AccountType validateAccountType(AccountType current, AccountType requested) {
+        if (requested == current) {
+            return requested;
+        }
+        if (requested == AccountType.ADMIN || requested == AccountType.NEW_USER) {
+            throw new IllegalArgumentException("Account type " + requested + " cannot be selected");
         }
+        return requested;
     }
 
     /**
@@ -15,7 +15,7 @@ public class UserStatusService {
 
     private static final String STATUS_KEY_PREFIX = "user:status:";
     private static final long OFFLINE_THRESHOLD_MINUTES = 30;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, UserStatus> userStatusRedisTemplate;
 
     /**
      * Mark user as online
@@ -28,7 +28,7 @@ public class UserStatusService {
                 .lastSeen(LocalDateTime.now())
                 .build();
 
-        redisTemplate.opsForValue().set(key, status);
+        userStatusRedisTemplate.opsForValue().set(key, status);
         log.debug("User {} is now ONLINE", userId);
     }
 
@@ -37,13 +37,13 @@ public class UserStatusService {
      */
     public void setUserOffline(Long userId) {
         String key = STATUS_KEY_PREFIX + userId;
-        Object val = redisTemplate.opsForValue().get(key);
+        UserStatus status = userStatusRedisTemplate.opsForValue().get(key);
 
-        if (val instanceof UserStatus status) {
+        if (status != null) {
             status.setOnline(false);
             status.setLastSeen(LocalDateTime.now());
             // Keep status in Redis for a while after they go offline
-            redisTemplate.opsForValue().set(key, status, OFFLINE_THRESHOLD_MINUTES, TimeUnit.MINUTES);
+            userStatusRedisTemplate.opsForValue().set(key, status, OFFLINE_THRESHOLD_MINUTES, TimeUnit.MINUTES);
             log.debug("User {} is now OFFLINE", userId);
         }
     }
@@ -53,12 +53,9 @@ public class UserStatusService {
      */
     public boolean isUserOnline(Long userId) {
         String key = STATUS_KEY_PREFIX + userId;
-        Object val = redisTemplate.opsForValue().get(key);
+        UserStatus status = userStatusRedisTemplate.opsForValue().get(key);
 
-        if (val instanceof UserStatus status) {
-            return status.isOnline();
-        }
-        return false;
+        return status != null && status.isOnline();
     }
 
     /**
@@ -66,12 +63,9 @@ public class UserStatusService {
      */
     public LocalDateTime getLastSeen(Long userId) {
         String key = STATUS_KEY_PREFIX + userId;
-        Object val = redisTemplate.opsForValue().get(key);
+        UserStatus status = userStatusRedisTemplate.opsForValue().get(key);
 
-        if (val instanceof UserStatus status) {
-            return status.getLastSeen();
-        }
-        return null;
+        return status != null ? status.getLastSeen() : null;
     }
 
     @Data
@@ -0,0 +1,193 @@
+package com.takeone.backend.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.takeone.backend.config.ReplicaRoutingDataSource;
+import com.takeone.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Per-node Bloom filter of every taken username hash.
+ * A negative answer means the username was never taken and can be reported as
+ * available without touching Redis or MySQL; a positive answer may be a false
+ * positive and falls through to the regular lookup.
+ * Loaded at startup by streaming the users table from the primary, kept current
+ * across nodes via the "username:taken" Redis channel once the assignment has
+ * committed, and rebuilt nightly to drop usernames that were released since.
+ */
+@Slf4j
+@Component
+public class UsernameBloomFilter implements MessageListener {
+
+    private static final String TAKEN_CHANNEL = "username:taken";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final double falsePositiveRate;
+    private final Counter negativeCounter;
+    private final Counter positiveCounter;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    // Guards the swap against additions that arrive while a rebuild runs
+    private final Object swapLock = new Object();
+    // Hashes taken while a rebuild runs; re-applied to the new filter before the swap
+    private final Set<String> addedDuringBuild = new HashSet<>();
+
+    // Null until the first load completes; every lookup falls through until then
+    private volatile BloomFilter<CharSequence> filter;
+    private boolean building;
+    private volatile long capacity;
+
+    public UsernameBloomFilter(UserRepository userRepository,
+                               StringRedisTemplate stringRedisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.username.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.falsePositiveRate = falsePositiveRate;
+        this.negativeCounter = meterRegistry.counter("username.filter.lookups", "result", "negative");
+        this.positiveCounter = meterRegistry.counter("username.filter.lookups", "result", "positive");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(TAKEN_CHANNEL));
+    }
+
+    /**
+     * Whether the username hash may have been taken.
+     * False is definite: no user ever had this username.
+     */
+    public boolean mightContain(String usernameHash) {
+        BloomFilter<CharSequence> current = filter;
+        if (current == null) {
+            return true;
+        }
+        boolean result = current.mightContain(usernameHash);
+        (result ? positiveCounter : negativeCounter).increment();
+        return result;
+    }
+
+    /**
+     * Record a newly taken username hash on every node once the assignment has
+     * committed, so a rebuild never reads the table without it after the hash
+     * was already applied
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsernameTaken(UsernameTakenEvent event) {
+        add(event.usernameHash());
+        try {
+            stringRedisTemplate.convertAndSend(TAKEN_CHANNEL, event.usernameHash());
+        } catch (Exception e) {
+            // Other nodes report the name through their Redis/MySQL lookup until the next rebuild
+            log.warn("Failed to publish taken username: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * (Re)build the filter from the users table
+     * Runs once the application is ready and nightly from UsernameFilterScheduler
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        load();
+    }
+
+    /**
+     * Rebuild early if sign-ups filled the filter past its sized capacity,
+     * which would push the false-positive rate above the configured one
+     */
+    @Transactional(readOnly = true)
+    public void rebuildIfSaturated() {
+        BloomFilter<CharSequence> current = filter;
+        if (current != null && current.approximateElementCount() > capacity) {
+            log.info("Username filter exceeded its capacity of {}, rebuilding", capacity);
+            load();
+        }
+    }
+
+    // From the primary: a lagging replica could miss a username whose hash was already applied
+    private void load() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Before the first read: anything committed after the snapshot is recorded
+            synchronized (swapLock) {
+                addedDuringBuild.clear();
+                building = true;
+            }
+
+            ReplicaRoutingDataSource.onPrimary(() -> {
+                long count = userRepository.countByUsernameHashIsNotNull();
+                // Headroom for sign-ups until the next rebuild
+                long expected = Math.max(10_000, count * 2);
+                BloomFilter<CharSequence> next = BloomFilter.create(
+                        Funnels.stringFunnel(StandardCharsets.UTF_8), expected, falsePositiveRate);
+
+                try (Stream<String> hashes = userRepository.streamAllUsernameHashes()) {
+                    hashes.forEach(next::put);
+                }
+
+                synchronized (swapLock) {
+                    addedDuringBuild.forEach(next::put);
+                    filter = next;
+                    capacity = expected;
+                }
+                log.info("Username filter loaded with {} hashes (capacity {})", count, expected);
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Failed to build username filter, lookups fall through: {}", e.getMessage(), e);
+        } finally {
+            synchronized (swapLock) {
+                building = false;
+                addedDuringBuild.clear();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    private void add(String usernameHash) {
+        if (usernameHash == null) {
+            return;
+        }
+        synchronized (swapLock) {
+            BloomFilter<CharSequence> current = filter;
+            if (current != null) {
+                current.put(usernameHash);
+            }
+            if (building) {
+                addedDuringBuild.add(usernameHash);
+            }
+        }
+    }
+}
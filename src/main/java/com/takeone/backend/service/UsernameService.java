@@ -1,12 +1,29 @@
 package com.takeone.backend.service;
 
+import com.takeone.backend.dto.CheckUsernamesResponse;
 import com.takeone.backend.repository.UserRepository;
 import com.takeone.backend.util.HashUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Service;
 
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -16,12 +33,23 @@ public class UsernameService {
 
     private static final String USERNAME_CACHE_PREFIX = "username:hash:";
     private static final long CACHE_TTL_HOURS = 24;
+    private static final int MIN_USERNAME_LENGTH = 3;
+    private static final int MAX_USERNAME_LENGTH = 50;
+    // Longest suffix appended to a base name ("_" + 4 digits)
+    private static final int MAX_SUFFIX_LENGTH = 5;
+    private static final int DEFAULT_SUGGESTION_LIMIT = 10;
+    // Generated candidates per requested suggestion, so a few taken ones still fill the limit
+    private static final int SUGGESTION_OVERSAMPLE = 3;
     private final UserRepository userRepository;
-    private final RedisTemplate<String, Object> redisTemplate;
+    // Flags and reservations are plain strings ("true"/"false", user id)
+    private final StringRedisTemplate redisTemplate;
+    private final UsernameBloomFilter usernameBloomFilter;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Check if username is available (unique)
-     * Uses Redis cache for fast lookups
+     * Answered from the in-memory filter when the username was never taken,
+     * otherwise uses Redis cache for fast lookups
      *
      * @param username Username to check
      * @return true if available, false if taken
@@ -37,13 +65,50 @@ public class UsernameService {
         // Generate SHA-256 hash
         String usernameHash = HashUtil.sha256(normalizedUsername);
 
+        // Definitely never taken on any node we have heard from - no I/O needed
+        if (!usernameBloomFilter.mightContain(usernameHash)) {
+            return true;
+        }
+
+        return isHashAvailable(usernameHash, username);
+    }
+
+    /**
+     * Check username availability against Redis/MySQL only, bypassing the filter.
+     * Used before actually assigning a username, where a not-yet-propagated
+     * change from another node must not slip through.
+     */
+    public boolean isUsernameAvailableStrict(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return false;
+        }
+
+        String normalizedUsername = username.toLowerCase().trim();
+        return isHashAvailable(HashUtil.sha256(normalizedUsername), username);
+    }
+
+    /**
+     * Record a username as taken on every node's filter
+     * Called after a username is assigned to a user; applied once the
+     * transaction commits
+     */
+    public void markUsernameTaken(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return;
+        }
+
+        String normalizedUsername = username.toLowerCase().trim();
+        eventPublisher.publishEvent(new UsernameTakenEvent(HashUtil.sha256(normalizedUsername)));
+    }
+
+    private boolean isHashAvailable(String usernameHash, String username) {
         // Check Redis cache first
         String cacheKey = USERNAME_CACHE_PREFIX + usernameHash;
-        Boolean cachedResult = (Boolean) redisTemplate.opsForValue().get(cacheKey);
+        String cachedResult = redisTemplate.opsForValue().get(cacheKey);
 
         if (cachedResult != null) {
             log.debug("Username availability check - Cache HIT for: {}", username);
-            return cachedResult;
+            return Boolean.parseBoolean(cachedResult);
         }
 
         // Cache miss - check database
@@ -53,13 +118,181 @@ public class UsernameService {
         // Store result in Redis cache
         redisTemplate.opsForValue().set(
                 cacheKey,
-                isAvailable,
+                String.valueOf(isAvailable),
                 CACHE_TTL_HOURS,
                 TimeUnit.HOURS);
 
         return isAvailable;
     }
 
+    /**
+     * Check many usernames at once and/or expand a base name into suggestions
+     * Explicit candidates keep the caller's order; generated suggestions follow,
+     * shortest first.
+     *
+     * @param candidates Explicit usernames to check (may be null)
+     * @param base       Free-form base name to expand (may be null)
+     * @param limit      Maximum number of available suggestions to return (null for default);
+     *                   explicit candidates are always all answered
+     */
+    public CheckUsernamesResponse checkUsernames(List<String> candidates, String base, Integer limit) {
+        int max = limit != null ? limit : DEFAULT_SUGGESTION_LIMIT;
+
+        Set<String> explicit = new LinkedHashSet<>();
+        if (candidates != null) {
+            candidates.stream()
+                    .filter(c -> c != null && !c.trim().isEmpty())
+                    .map(c -> c.toLowerCase().trim())
+                    .forEach(explicit::add);
+        }
+
+        List<String> suggestions = generateSuggestions(base, max * SUGGESTION_OVERSAMPLE);
+        suggestions.removeAll(explicit);
+
+        List<String> all = new ArrayList<>(explicit.size() + suggestions.size());
+        all.addAll(explicit);
+        all.addAll(suggestions);
+        Map<String, Boolean> availability = checkAvailability(all);
+
+        List<String> available = new ArrayList<>();
+        List<String> taken = new ArrayList<>();
+        for (String username : explicit) {
+            if (availability.get(username)) {
+                available.add(username);
+            } else {
+                taken.add(username);
+            }
+        }
+        suggestions.stream()
+                .filter(availability::get)
+                .limit(max)
+                .forEach(available::add);
+
+        return CheckUsernamesResponse.builder()
+                .available(available)
+                .taken(taken)
+                .build();
+    }
+
+    /**
+     * Batch availability check
+     * Never-taken usernames are answered by the in-memory filter; the rest with
+     * one Redis MGET and a single IN query for the cache misses, whose results
+     * are written back in one pipeline.
+     *
+     * @param usernames Normalized usernames
+     * @return Availability per username, in input order
+     */
+    public Map<String, Boolean> checkAvailability(Collection<String> usernames) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        Map<String, String> hashToUsername = new LinkedHashMap<>();
+
+        for (String username : usernames) {
+            String usernameHash = HashUtil.sha256(username);
+            if (usernameBloomFilter.mightContain(usernameHash)) {
+                hashToUsername.put(usernameHash, username);
+                result.put(username, null);
+            } else {
+                result.put(username, true);
+            }
+        }
+
+        if (hashToUsername.isEmpty()) {
+            return result;
+        }
+
+        List<String> hashes = new ArrayList<>(hashToUsername.keySet());
+        List<String> cached = redisTemplate.opsForValue().multiGet(
+                hashes.stream().map(h -> USERNAME_CACHE_PREFIX + h).toList());
+
+        List<String> misses = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            String value = cached != null ? cached.get(i) : null;
+            if (value != null) {
+                result.put(hashToUsername.get(hashes.get(i)), Boolean.parseBoolean(value));
+            } else {
+                misses.add(hashes.get(i));
+            }
+        }
+
+        log.debug("Batch username check - {} filtered, {} cache hits, {} misses",
+                usernames.size() - hashes.size(), hashes.size() - misses.size(), misses.size());
+
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        Set<String> existing = new HashSet<>(userRepository.findExistingUsernameHashes(misses));
+        for (String usernameHash : misses) {
+            result.put(hashToUsername.get(usernameHash), !existing.contains(usernameHash));
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                // Runs against the StringRedisTemplate
+                ValueOperations<String, String> values = (ValueOperations<String, String>) operations.opsForValue();
+                for (String usernameHash : misses) {
+                    values.set(
+                            USERNAME_CACHE_PREFIX + usernameHash,
+                            String.valueOf(!existing.contains(usernameHash)),
+                            CACHE_TTL_HOURS,
+                            TimeUnit.HOURS);
+                }
+                return null;
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Expand a free-form base name into valid username candidates
+     * The normalized base comes first, then numbered variants, shortest first.
+     */
+    private List<String> generateSuggestions(String base, int count) {
+        if (base == null || base.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        String stem = base.toLowerCase().trim()
+                .replaceAll("[\\s.\\-]+", "_")
+                .replaceAll("[^a-z0-9_]", "")
+                .replaceAll("_+", "_")
+                .replaceAll("^_|_$", "");
+        if (stem.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (stem.length() > MAX_USERNAME_LENGTH - MAX_SUFFIX_LENGTH) {
+            stem = stem.substring(0, MAX_USERNAME_LENGTH - MAX_SUFFIX_LENGTH);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String year = String.valueOf(Year.now().getValue() % 100);
+        Set<String> generated = new LinkedHashSet<>();
+        generated.add(stem);
+        generated.add(stem + year);
+        generated.add(stem + "_" + year);
+        for (int i = 1; i <= 9 && generated.size() < count; i++) {
+            generated.add(stem + i);
+        }
+        // Random 2-4 digit suffixes; bounded attempts in case the stem is tiny
+        for (int attempts = 0; generated.size() < count && attempts < count * 4; attempts++) {
+            int digits = 2 + random.nextInt(3);
+            int number = random.nextInt((int) Math.pow(10, digits - 1), (int) Math.pow(10, digits));
+            generated.add(random.nextBoolean() ? stem + number : stem + "_" + number);
+        }
+
+        List<String> suggestions = new ArrayList<>(generated.stream()
+                .filter(s -> s.length() >= MIN_USERNAME_LENGTH)
+                .limit(count)
+                .toList());
+        // Stable sort keeps generation order among equal lengths
+        suggestions.sort(Comparator.comparingInt(String::length));
+        return suggestions;
+    }
+
     /**
      * Invalidate username cache when a username is taken
      * Called after user registration/username update
@@ -93,7 +326,7 @@ public class UsernameService {
         // Try to set if not exists (NX flag)
         Boolean reserved = redisTemplate.opsForValue().setIfAbsent(
                 reservationKey,
-                userId,
+                String.valueOf(userId),
                 durationMinutes,
                 TimeUnit.MINUTES);
 
@@ -103,8 +336,8 @@ public class UsernameService {
         }
 
         // Check if already reserved by same user
-        Object reservedBy = redisTemplate.opsForValue().get(reservationKey);
-        if (reservedBy != null && reservedBy.equals(userId)) {
+        String reservedBy = redisTemplate.opsForValue().get(reservationKey);
+        if (reservedBy != null && reservedBy.equals(String.valueOf(userId))) {
             log.debug("Username already reserved by same user: {}", userId);
             return true;
         }
@@ -0,0 +1,7 @@
+package com.takeone.backend.service;
+
+/**
+ * Published when a username is assigned to a user
+ */
+public record UsernameTakenEvent(String usernameHash) {
+}
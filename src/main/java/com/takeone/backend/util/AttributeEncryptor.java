@@ -6,26 +6,121 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Column encryption for PII fields
+ * Values are written as AES-256-GCM with a text header carrying the key version:
+ * "v<version>$" + Base64(iv || ciphertext || tag). Values without a header were
+ * written by the previous AES/ECB scheme and are still decrypted, so rows migrate
+ * as they are rewritten.
+ * Keys are built once; ciphers are cached per thread, since Cipher.getInstance
+ * is a provider lookup and Cipher instances are not thread-safe.
+ * Entities that decrypt lazily (see {@link EncryptedField}) reach the
+ * Spring-managed instance through {@link #encrypt} / {@link #decrypt}.
+ */
 @Component
 @Converter
 public class AttributeEncryptor implements AttributeConverter<String, String> {
 
     private static final String AES = "AES";
+    private static final String AES_GCM = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final char HEADER_PREFIX = 'v';
+    // Not part of the Base64 alphabet, so legacy values can never look versioned
+    private static final char HEADER_SEPARATOR = '$';
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadLocal<Cipher> GCM_CIPHER = ThreadLocal.withInitial(() -> cipher(AES_GCM));
+    private static final ThreadLocal<Cipher> LEGACY_CIPHER = ThreadLocal.withInitial(() -> cipher(AES));
+
+    private static volatile AttributeEncryptor instance;
+
+    private final int currentVersion;
+    private final String header;
+    private final Map<Integer, SecretKey> keys = new HashMap<>();
+    private final SecretKey legacyKey;
 
     // In a real scenario, this key should be injected from a secure environment
     // variable.
     // We will use a default for dev if not present, but for prod it must be set.
-    private final String secretKey;
+    // During a key rotation the previous key stays configured so rows written with
+    // it remain readable until ReEncryptionService has rewritten them.
+    // The ECB key is configured on its own: it is the key from before versioning,
+    // which after a second rotation is neither the current nor the previous one.
+    public AttributeEncryptor(@Value("${app.security.db-encryption-key:DefaultSecretKey123}") String secretKey,
+                              @Value("${app.security.db-encryption-key-version:1}") int keyVersion,
+                              @Value("${app.security.db-encryption-previous-key:}") String previousKey,
+                              @Value("${app.security.db-encryption-previous-key-version:0}") int previousKeyVersion,
+                              @Value("${app.security.db-encryption-legacy-key:}") String legacyKey) {
+        boolean rotating = previousKey != null && !previousKey.isEmpty();
+        if (rotating && previousKeyVersion == keyVersion) {
+            throw new IllegalStateException("Previous encryption key must have a different version than the current one");
+        }
+
+        this.currentVersion = keyVersion;
+        this.header = String.valueOf(HEADER_PREFIX) + keyVersion + HEADER_SEPARATOR;
+        this.keys.put(keyVersion, deriveKey(secretKey));
+        if (rotating) {
+            this.keys.put(previousKeyVersion, deriveKey(previousKey));
+        }
+        // ECB values predate versioning, padded/truncated to 16 bytes; without a
+        // legacy key they were written with the current one
+        String ecbKey = legacyKey != null && !legacyKey.isEmpty() ? legacyKey : secretKey;
+        this.legacyKey = new SecretKeySpec(fixKeyLength(ecbKey).getBytes(StandardCharsets.UTF_8), AES);
+        instance = this;
+    }
+
+    /**
+     * Encrypt with the application's configured key
+     */
+    public static String encrypt(String plaintext) {
+        return current().convertToDatabaseColumn(plaintext);
+    }
 
-    public AttributeEncryptor(@Value("${app.security.db-encryption-key:DefaultSecretKey123}") String secretKey) {
-        // Ensure key is 16, 24, or 32 bytes. We'll pad or truncate for simplicity in
-        // this demo,
-        // but robust key management is recommended.
-        this.secretKey = fixKeyLength(secretKey);
+    /**
+     * Decrypt with the application's configured keys
+     */
+    public static String decrypt(String ciphertext) {
+        return current().convertToEntityAttribute(ciphertext);
+    }
+
+    /**
+     * Ciphertext under the current key version; values already current are
+     * returned as is, older versions and legacy ECB values are re-encrypted
+     */
+    public static String reEncrypt(String ciphertext) {
+        AttributeEncryptor encryptor = current();
+        if (ciphertext == null || encryptor.isCurrent(ciphertext)) {
+            return ciphertext;
+        }
+        return encryptor.convertToDatabaseColumn(encryptor.convertToEntityAttribute(ciphertext));
+    }
+
+    public int getCurrentVersion() {
+        return currentVersion;
+    }
+
+    private boolean isCurrent(String ciphertext) {
+        return ciphertext.startsWith(header);
+    }
+
+    private static AttributeEncryptor current() {
+        AttributeEncryptor encryptor = instance;
+        if (encryptor == null) {
+            throw new IllegalStateException("AttributeEncryptor has not been initialized");
+        }
+        return encryptor;
     }
 
     private String fixKeyLength(String key) {
@@ -35,17 +130,33 @@ public class AttributeEncryptor implements AttributeConverter<String, String> {
         return key.substring(0, 16);
     }
 
+    // 256-bit GCM key from the configured secret, independent of its length
+    private static SecretKey deriveKey(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest, AES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Cipher cipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cipher " + transformation + " not available", e);
+        }
+    }
+
     @Override
     public String convertToDatabaseColumn(String attribute) {
         if (attribute == null)
             return null;
+        long start = System.nanoTime();
         try {
-            Cipher cipher = Cipher.getInstance(AES);
-            SecretKeySpec keySpec = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), AES);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-            return Base64.getEncoder().encodeToString(cipher.doFinal(attribute.getBytes(StandardCharsets.UTF_8)));
-        } catch (Exception e) {
-            throw new IllegalStateException("Error encrypting data", e);
+            return encryptCurrent(attribute);
+        } finally {
+            RequestTimings.record(RequestTimings.Backend.CRYPTO, System.nanoTime() - start);
         }
     }
 
@@ -53,13 +164,59 @@ public class AttributeEncryptor implements AttributeConverter<String, String> {
     public String convertToEntityAttribute(String dbData) {
         if (dbData == null)
             return null;
+        long start = System.nanoTime();
+        try {
+            return decryptAny(dbData);
+        } finally {
+            RequestTimings.record(RequestTimings.Backend.CRYPTO, System.nanoTime() - start);
+        }
+    }
+
+    private String encryptCurrent(String attribute) {
         try {
-            Cipher cipher = Cipher.getInstance(AES);
-            SecretKeySpec keySpec = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), AES);
-            cipher.init(Cipher.DECRYPT_MODE, keySpec);
-            return new String(cipher.doFinal(Base64.getDecoder().decode(dbData)), StandardCharsets.UTF_8);
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+
+            Cipher cipher = GCM_CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, keys.get(currentVersion), new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] plaintext = attribute.getBytes(StandardCharsets.UTF_8);
+            byte[] out = new byte[IV_LENGTH + cipher.getOutputSize(plaintext.length)];
+            System.arraycopy(iv, 0, out, 0, IV_LENGTH);
+            cipher.doFinal(plaintext, 0, plaintext.length, out, IV_LENGTH);
+
+            return header + Base64.getEncoder().encodeToString(out);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error encrypting data", e);
+        }
+    }
+
+    private String decryptAny(String dbData) {
+        try {
+            int separator = dbData.indexOf(HEADER_SEPARATOR);
+            if (separator < 0) {
+                return decryptLegacy(dbData);
+            }
+
+            int version = Integer.parseInt(dbData, 1, separator, 10);
+            SecretKey key = keys.get(version);
+            if (key == null) {
+                throw new IllegalStateException("Unknown encryption key version " + version);
+            }
+
+            byte[] data = Base64.getDecoder().decode(dbData.substring(separator + 1));
+            Cipher cipher = GCM_CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, data, 0, IV_LENGTH));
+            return new String(cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (IllegalStateException e) {
+            throw e;
         } catch (Exception e) {
             throw new IllegalStateException("Error decrypting data", e);
         }
     }
+
+    private String decryptLegacy(String dbData) throws Exception {
+        Cipher cipher = LEGACY_CIPHER.get();
+        cipher.init(Cipher.DECRYPT_MODE, legacyKey);
+        return new String(cipher.doFinal(Base64.getDecoder().decode(dbData)), StandardCharsets.UTF_8);
+    }
 }
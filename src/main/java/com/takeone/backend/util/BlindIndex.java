@@ -0,0 +1,83 @@
+package com.takeone.backend.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Keyed blind indexes for encrypted columns
+ * HMAC-SHA256 over the normalized value, hex encoded. Deterministic, so equal
+ * values can be found with an index seek, but not reversible or guessable
+ * without the key (unlike a plain hash of a low-entropy value such as a phone
+ * number). Uses its own key, separate from the encryption key.
+ */
+@Component
+public class BlindIndex {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private static volatile BlindIndex instance;
+
+    private final ThreadLocal<Mac> mac;
+
+    public BlindIndex(@Value("${app.security.blind-index-key:DefaultBlindIndexKey123}") String key) {
+        SecretKeySpec keySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), HMAC_SHA256);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac m = Mac.getInstance(HMAC_SHA256);
+                m.init(keySpec);
+                return m;
+            } catch (Exception e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+        instance = this;
+    }
+
+    /**
+     * Blind index of an email (trimmed, lower-cased)
+     */
+    public static String email(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return current().compute(email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Blind index of a mobile number (digits and leading '+' only)
+     */
+    public static String mobile(String mobile) {
+        if (mobile == null || mobile.isBlank()) {
+            return null;
+        }
+        String trimmed = mobile.trim();
+        String digits = trimmed.replaceAll("\\D", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+        return current().compute(trimmed.startsWith("+") ? "+" + digits : digits);
+    }
+
+    private String compute(String normalized) {
+        long start = System.nanoTime();
+        try {
+            return HexFormat.of().formatHex(mac.get().doFinal(normalized.getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            RequestTimings.record(RequestTimings.Backend.CRYPTO, System.nanoTime() - start);
+        }
+    }
+
+    private static BlindIndex current() {
+        BlindIndex blindIndex = instance;
+        if (blindIndex == null) {
+            throw new IllegalStateException("BlindIndex has not been initialized");
+        }
+        return blindIndex;
+    }
+}
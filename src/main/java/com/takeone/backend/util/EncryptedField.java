@@ -0,0 +1,43 @@
+package com.takeone.backend.util;
+
+import java.util.Objects;
+
+/**
+ * Decrypt-on-access holder for an encrypted entity column
+ * The entity persists the ciphertext itself; this keeps the plaintext for the
+ * ciphertext it was last derived from, so a column is decrypted only when read
+ * and at most once per loaded value. Not thread-safe, like the entity it lives in.
+ */
+public final class EncryptedField {
+
+    private String ciphertext;
+    private String plaintext;
+
+    /**
+     * Plaintext for the entity's current ciphertext
+     */
+    public String get(String currentCiphertext) {
+        if (currentCiphertext == null) {
+            return null;
+        }
+        // Identity check: the entity field is only ever replaced, never mutated
+        if (currentCiphertext != ciphertext) {
+            plaintext = AttributeEncryptor.decrypt(currentCiphertext);
+            ciphertext = currentCiphertext;
+        }
+        return plaintext;
+    }
+
+    /**
+     * Ciphertext to store for a new plaintext; unchanged values keep the current
+     * ciphertext so the column is not rewritten
+     */
+    public String set(String currentCiphertext, String value) {
+        if (Objects.equals(value, get(currentCiphertext))) {
+            return currentCiphertext;
+        }
+        plaintext = value;
+        ciphertext = value != null ? AttributeEncryptor.encrypt(value) : null;
+        return ciphertext;
+    }
+}
@@ -0,0 +1,125 @@
+package com.takeone.backend.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Custom Flight Recorder events for the hot paths, so a recording shows which
+ * users, sessions and message types the time went to.
+ * Events are only written while a recording has them enabled, and only when they
+ * take longer than their threshold: the annotation is the default for
+ * -XX:StartFlightRecording, recordings started through /actuator/jfr use
+ * app.jfr.thresholds. Usage:
+ * <pre>
+ * FlightEvents.RelayFrame event = new FlightEvents.RelayFrame();
+ * event.begin();
+ * ...
+ * event.end();
+ * if (event.shouldCommit()) { event.senderId = ...; event.commit(); }
+ * </pre>
+ * Attributes are ids and types only, never tokens or message content.
+ */
+public final class FlightEvents {
+
+    public static final String SESSION_VALIDATION = "takeone.SessionValidation";
+    public static final String RELAY_FRAME = "takeone.RelayFrame";
+    public static final String RELAY_MESSAGE = "takeone.RelayMessage";
+    public static final String PUSH_SEND = "takeone.PushSend";
+
+    private FlightEvents() {
+    }
+
+    @Name(SESSION_VALIDATION)
+    @Label("Session Validation")
+    @Description("SessionService.validateAndRefreshSession")
+    @Category({"TakeOne", "Auth"})
+    @Threshold("20 ms")
+    @StackTrace(false)
+    public static class SessionValidation extends Event {
+        @Label("Session Id")
+        public long sessionId;
+
+        @Label("User Id")
+        public long userId;
+
+        @Label("Outcome")
+        @Description("VALID, NOT_FOUND, EXPIRED or ERROR")
+        public String outcome;
+    }
+
+    @Name(RELAY_FRAME)
+    @Label("Relay Frame")
+    @Description("One WebSocket frame handled by MessageRelayHandler")
+    @Category({"TakeOne", "Relay"})
+    @Threshold("10 ms")
+    @StackTrace(false)
+    public static class RelayFrame extends Event {
+        @Label("Frame Type")
+        public String frameType;
+
+        @Label("Sender Id")
+        public long senderId;
+
+        @Label("Payload Length")
+        public int payloadLength;
+
+        @Label("Trace Id")
+        public String traceId;
+    }
+
+    @Name(RELAY_MESSAGE)
+    @Label("Relay Message")
+    @Description("MessageRelayService.handleIncomingMessage")
+    @Category({"TakeOne", "Relay"})
+    @Threshold("10 ms")
+    @StackTrace(false)
+    public static class RelayMessage extends Event {
+        @Label("Message Id")
+        public String messageId;
+
+        @Label("Message Type")
+        public String messageType;
+
+        @Label("Sender Id")
+        public long senderId;
+
+        @Label("Recipient Id")
+        public long recipientId;
+
+        @Label("Recipient Online")
+        public boolean recipientOnline;
+
+        @Label("Trace Id")
+        public String traceId;
+    }
+
+    @Name(PUSH_SEND)
+    @Label("Push Send")
+    @Description("One FCM send through FirebaseService")
+    @Category({"TakeOne", "Push"})
+    @Threshold("100 ms")
+    @StackTrace(false)
+    public static class PushSend extends Event {
+        @Label("User Id")
+        @Description("0 when sent to a single token")
+        public long userId;
+
+        @Label("Tokens")
+        public int tokenCount;
+
+        @Label("Successes")
+        public int successCount;
+
+        @Label("Failures")
+        public int failureCount;
+
+        @Label("Outcome")
+        @Description("SENT or the exception that ended the call")
+        public String outcome;
+    }
+}
@@ -0,0 +1,226 @@
+package com.takeone.backend.util;
+
+import com.takeone.backend.config.HotPathLoggingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging for per-message events on the relay hot path
+ * Every event is counted exactly in hotpath.events{event}; only a sample of
+ * them is written (one in sample-every, at most max-lines-per-second per event),
+ * each sampled line noting how many were suppressed since the previous one.
+ * Full logging can be switched on for a user or a trace id (see
+ * HotPathLoggingEndpoint); it applies on every node via the
+ * "logging:hot-path" Redis channel and expires on its own.
+ */
+@Slf4j
+@Component
+public class HotPathLogger implements MessageListener {
+
+    private static final String TARGETS_CHANNEL = "logging:hot-path";
+    private static final String MDC_TRACE_ID = "traceId";
+    private static final String USER = "user";
+    private static final String TRACE = "trace";
+
+    private final MeterRegistry meterRegistry;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final HotPathLoggingProperties properties;
+    private final Map<String, EventState> events = new ConcurrentHashMap<>();
+    // Target -> expiry (epoch millis)
+    private final Map<Long, Long> fullLoggingUsers = new ConcurrentHashMap<>();
+    private final Map<String, Long> fullLoggingTraces = new ConcurrentHashMap<>();
+
+    public HotPathLogger(MeterRegistry meterRegistry,
+                         StringRedisTemplate stringRedisTemplate,
+                         RedisMessageListenerContainer listenerContainer,
+                         HotPathLoggingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(TARGETS_CHANNEL));
+    }
+
+    /**
+     * Count a hot-path event and log it at INFO if it is sampled, or if full
+     * logging is on for either user or the current trace id
+     *
+     * @param event  bounded event name, e.g. "relay.direct"
+     * @param userId user the event is about
+     * @param peerId other user involved, if any
+     */
+    public void info(Logger logger, String event, Long userId, Long peerId, String format, Object... args) {
+        EventState state = events.computeIfAbsent(event, this::newState);
+        state.counter.increment();
+
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        if (isFullLogging(userId, peerId)) {
+            logger.info(format, args);
+            return;
+        }
+
+        long suppressed = state.sample(properties.getSampleEvery(), properties.getMaxLinesPerSecond());
+        if (suppressed >= 0) {
+            logger.info(format + " [sampled, " + suppressed + " similar suppressed]", args);
+        }
+    }
+
+    /**
+     * Log every hot-path event for this user on all nodes
+     */
+    public void enableForUser(Long userId, Duration ttl) {
+        publish(USER, String.valueOf(userId), expiry(ttl));
+    }
+
+    /**
+     * Log every hot-path event carrying this trace id on all nodes
+     */
+    public void enableForTrace(String traceId, Duration ttl) {
+        publish(TRACE, traceId, expiry(ttl));
+    }
+
+    public void disableForUser(Long userId) {
+        publish(USER, String.valueOf(userId), 0);
+    }
+
+    public void disableForTrace(String traceId) {
+        publish(TRACE, traceId, 0);
+    }
+
+    /**
+     * Users and trace ids with full logging on this node, with their expiry
+     */
+    public Map<String, Map<?, Long>> fullLoggingTargets() {
+        return Map.of("users", Map.copyOf(fullLoggingUsers), "traces", Map.copyOf(fullLoggingTraces));
+    }
+
+    // "<kind>|<expiresAtMillis>|<id>", expiry 0 disables
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3) {
+            return;
+        }
+        try {
+            apply(parts[0], parts[2], Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed hot-path logging message");
+        }
+    }
+
+    private void publish(String kind, String id, long expiresAt) {
+        apply(kind, id, expiresAt);
+        stringRedisTemplate.convertAndSend(TARGETS_CHANNEL, kind + "|" + expiresAt + "|" + id);
+    }
+
+    private void apply(String kind, String id, long expiresAt) {
+        if (USER.equals(kind)) {
+            Long userId = Long.valueOf(id);
+            if (expiresAt > 0) {
+                fullLoggingUsers.put(userId, expiresAt);
+            } else {
+                fullLoggingUsers.remove(userId);
+            }
+        } else if (TRACE.equals(kind)) {
+            if (expiresAt > 0) {
+                fullLoggingTraces.put(id, expiresAt);
+            } else {
+                fullLoggingTraces.remove(id);
+            }
+        }
+    }
+
+    private boolean isFullLogging(Long userId, Long peerId) {
+        if (fullLoggingUsers.isEmpty() && fullLoggingTraces.isEmpty()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        return isActive(fullLoggingUsers, userId, now)
+                || isActive(fullLoggingUsers, peerId, now)
+                || isActive(fullLoggingTraces, MDC.get(MDC_TRACE_ID), now);
+    }
+
+    private static <K> boolean isActive(Map<K, Long> targets, K key, long now) {
+        if (key == null) {
+            return false;
+        }
+        Long expiresAt = targets.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= now) {
+            targets.remove(key, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    private long expiry(Duration ttl) {
+        return System.currentTimeMillis() + (ttl != null ? ttl : properties.getFullLoggingTtl()).toMillis();
+    }
+
+    private EventState newState(String event) {
+        return new EventState(meterRegistry.counter("hotpath.events", "event", event));
+    }
+
+    private static final class EventState {
+        private final Counter counter;
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicLong suppressed = new AtomicLong();
+        private long windowSecond;
+        private int linesInWindow;
+
+        EventState(Counter counter) {
+            this.counter = counter;
+        }
+
+        /**
+         * @return events suppressed since the last written line if this one
+         * should be written, otherwise -1
+         */
+        long sample(int sampleEvery, int maxLinesPerSecond) {
+            if (seen.getAndIncrement() % Math.max(1, sampleEvery) == 0 && takeLine(maxLinesPerSecond)) {
+                return suppressed.getAndSet(0);
+            }
+            suppressed.incrementAndGet();
+            return -1;
+        }
+
+        // Only sampled events get here, so the lock is rarely contended
+        private synchronized boolean takeLine(int maxLinesPerSecond) {
+            long second = System.currentTimeMillis() / 1000;
+            if (second != windowSecond) {
+                windowSecond = second;
+                linesInWindow = 0;
+            }
+            if (linesInWindow < maxLinesPerSecond) {
+                linesInWindow++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -3,66 +3,178 @@ package com.takeone.backend.util;
 import ch.qos.logback.classic.PatternLayout;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Custom logback layout to mask PII data like emails and phone numbers.
+ * Masking is a single linear scan of the formatted line with the same results as
+ * the previous regex rules:
+ * - email ([\w.-]+@[\w-]+(\.[\w-]+)+): u******r@example.com, or ****** when the
+ * local part has at most two characters
+ * - phone (\+?\d{10,12}): ******, applied after email masking, so digits kept in
+ * an email's domain are still masked
+ * Lines without PII are returned as is; otherwise the output is built in a
+ * per-thread buffer that is reused across lines.
  */
 public class MaskingPatternLayout extends PatternLayout {
 
-    // Pattern for Email
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("([\\w\\.\\-]+)@([\\w\\-]+)(\\.[\\w\\-]+)+");
-    // Pattern for Phone numbers (basic 10-12 digit pattern)
-    private static final Pattern PHONE_PATTERN = Pattern.compile("\\+?\\d{10,12}");
+    private static final String MASK = "******";
+    private static final int MIN_PHONE_DIGITS = 10;
+    private static final int MAX_PHONE_DIGITS = 12;
+    // Don't pin a huge buffer to a thread because of one oversized line
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
 
     @Override
     public String doLayout(ILoggingEvent event) {
         String message = super.doLayout(event);
-        return maskMessage(message);
+        return mask(message);
     }
 
-    private String maskMessage(String message) {
+    /**
+     * Mask emails and phone numbers in one pass over the message
+     */
+    public static String mask(String message) {
         if (message == null || message.isEmpty()) {
             return message;
         }
+        Masker masker = new Masker(message);
+        masker.scan();
+        return masker.result();
+    }
 
-        StringBuilder sb = new StringBuilder(message);
+    /**
+     * Walks words of [\w.-] characters. A word followed by '@' and a dotted domain
+     * is an email; otherwise its digit runs are phone candidates. Masked ranges
+     * are found in order and copied out lazily, so the buffer is only touched
+     * once something has to be replaced.
+     */
+    private static final class Masker {
+        private final String message;
+        private final int length;
+        private StringBuilder out;
+        // Input up to here has been copied to out (or needs no copy if out is null)
+        private int copied;
 
-        // Mask Emails
-        maskWithPattern(sb, EMAIL_PATTERN);
+        Masker(String message) {
+            this.message = message;
+            this.length = message.length();
+        }
 
-        // Mask Phone Numbers
-        maskWithPattern(sb, PHONE_PATTERN);
+        void scan() {
+            int i = 0;
+            while (i < length) {
+                if (!isLocalChar(message.charAt(i))) {
+                    i++;
+                    continue;
+                }
+                int wordStart = i;
+                int wordEnd = i + 1;
+                while (wordEnd < length && isLocalChar(message.charAt(wordEnd))) {
+                    wordEnd++;
+                }
 
-        return sb.toString();
-    }
+                int domainEnd = wordEnd < length && message.charAt(wordEnd) == '@' ? domainEnd(wordEnd + 1) : -1;
+                if (domainEnd > 0) {
+                    if (wordEnd - wordStart > 2) {
+                        // Keep the first and last character of the local part
+                        replace(wordStart + 1, wordEnd - 1);
+                        maskPhones(wordEnd + 1, domainEnd, false);
+                    } else {
+                        replace(wordStart, domainEnd);
+                    }
+                    i = domainEnd;
+                } else {
+                    maskPhones(wordStart, wordEnd, wordStart > 0 && message.charAt(wordStart - 1) == '+');
+                    i = wordEnd;
+                }
+            }
+        }
 
-    private void maskWithPattern(StringBuilder sb, Pattern pattern) {
-        Matcher matcher = pattern.matcher(sb.toString());
-        int offset = 0;
+        String result() {
+            if (out == null) {
+                return message;
+            }
+            out.append(message, copied, length);
+            String masked = out.toString();
+            if (out.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+            return masked;
+        }
 
-        while (matcher.find()) {
-            int start = matcher.start() + offset;
-            int end = matcher.end() + offset;
+        // End of [\w-]+(\.[\w-]+)+ starting at start, or -1 if there is none
+        private int domainEnd(int start) {
+            int end = labelEnd(start);
+            if (end == start) {
+                return -1;
+            }
+            int labels = 0;
+            while (end < length && message.charAt(end) == '.') {
+                int next = labelEnd(end + 1);
+                if (next == end + 1) {
+                    break;
+                }
+                end = next;
+                labels++;
+            }
+            return labels > 0 ? end : -1;
+        }
 
-            String original = sb.substring(start, end);
-            String masked = performMasking(original);
+        private int labelEnd(int start) {
+            int end = start;
+            while (end < length && isDomainChar(message.charAt(end))) {
+                end++;
+            }
+            return end;
+        }
 
-            sb.replace(start, end, masked);
-            offset += (masked.length() - original.length());
+        /**
+         * Mask \d{10,12} runs in [from, to), left to right, taking 12 digits at a
+         * time like the greedy regex did. A '+' right before the first run is
+         * masked with it.
+         */
+        private void maskPhones(int from, int to, boolean plusBefore) {
+            int i = from;
+            while (i < to) {
+                if (!isDigit(message.charAt(i))) {
+                    i++;
+                    continue;
+                }
+                int runEnd = i + 1;
+                while (runEnd < to && isDigit(message.charAt(runEnd))) {
+                    runEnd++;
+                }
+                boolean plus = plusBefore && i == from;
+                while (runEnd - i >= MIN_PHONE_DIGITS) {
+                    int chunkEnd = i + Math.min(runEnd - i, MAX_PHONE_DIGITS);
+                    replace(plus ? i - 1 : i, chunkEnd);
+                    plus = false;
+                    i = chunkEnd;
+                }
+                i = runEnd;
+            }
         }
-    }
 
-    private String performMasking(String value) {
-        String mask = "******";
-        if (value.contains("@")) {
-            // Email masking: u****r@example.com
-            int atIndex = value.indexOf("@");
-            if (atIndex > 2) {
-                return value.charAt(0) + mask + value.substring(atIndex - 1);
+        private void replace(int start, int end) {
+            if (out == null) {
+                out = BUFFER.get();
+                out.setLength(0);
             }
+            out.append(message, copied, start).append(MASK);
+            copied = end;
+        }
+
+        // [\w.-]
+        private static boolean isLocalChar(char c) {
+            return isDomainChar(c) || c == '.';
+        }
+
+        // [\w-]
+        private static boolean isDomainChar(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_' || c == '-';
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
         }
-        return mask;
     }
 }
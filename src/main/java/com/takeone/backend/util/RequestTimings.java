@@ -0,0 +1,95 @@
+package com.takeone.backend.util;
+
+import java.util.Locale;
+
+/**
+ * Time spent per backend (DB, Redis, Firebase, crypto) by the current request
+ * Collected on the request thread between {@link #begin()} and {@link #end()}
+ * (see RequestTraceFilter); recording outside a request is a no-op, so
+ * instrumented code does not need to know where it runs.
+ */
+public final class RequestTimings {
+
+    public enum Backend {
+        DB, REDIS, FIREBASE, CRYPTO;
+
+        private final String metricName = name().toLowerCase(Locale.ROOT);
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[Backend.values().length];
+    private final int[] calls = new int[Backend.values().length];
+
+    private RequestTimings() {
+    }
+
+    public static void begin() {
+        CURRENT.set(new RequestTimings());
+    }
+
+    /**
+     * Timings of the current request, or null outside one
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static RequestTimings end() {
+        RequestTimings timings = CURRENT.get();
+        CURRENT.remove();
+        return timings;
+    }
+
+    /**
+     * Add one call of the given duration to the current request
+     */
+    public static void record(Backend backend, long elapsedNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.nanos[backend.ordinal()] += elapsedNanos;
+            timings.calls[backend.ordinal()]++;
+        }
+    }
+
+    public long nanos(Backend backend) {
+        return nanos[backend.ordinal()];
+    }
+
+    public int calls(Backend backend) {
+        return calls[backend.ordinal()];
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Server-Timing header value: one metric per backend used plus the total,
+     * e.g. db;dur=12.4;desc="3 calls", redis;dur=0.8;desc="2 calls", total;dur=15.1
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(128);
+        for (Backend backend : Backend.values()) {
+            int count = calls[backend.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            appendMetric(header, backend.metricName(), nanos[backend.ordinal()]);
+            header.append(";desc=\"").append(count).append(count == 1 ? " call\"" : " calls\"").append(", ");
+        }
+        appendMetric(header, "total", elapsedNanos());
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        // Milliseconds with one decimal
+        long tenths = nanos / 100_000;
+        header.append(name).append(";dur=").append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
@@ -1,12 +1,18 @@
 package com.takeone.backend.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.takeone.backend.config.QueryMetrics;
 import com.takeone.backend.dto.MessagePayload;
 import com.takeone.backend.dto.WSMessage;
+import com.takeone.backend.entity.PendingMessage;
+import com.takeone.backend.service.DeliveryLatencyRecorder;
 import com.takeone.backend.service.MessageRelayService;
 import com.takeone.backend.service.UserStatusService;
+import com.takeone.backend.util.FlightEvents;
+import com.takeone.backend.util.HotPathLogger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -15,8 +21,16 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Relays end-to-end encrypted messages between connected users.
+ * Every frame runs with a trace id in the MDC: the one the client put on the
+ * envelope (or in the message payload), otherwise a new one. The trace id
+ * travels with the message to the recipient, into pending storage and into
+ * the push notification, so one message can be followed across nodes.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -24,9 +38,17 @@ public class MessageRelayHandler extends TextWebSocketHandler {
 
     // Map: UserId -> WebSocketSession
     private static final Map<Long, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    static final String HANDSHAKE_TRACE_ID = "handshakeTraceId";
+    private static final String MDC_TRACE_ID = "traceId";
+    private static final String MDC_ENDPOINT = "endpoint";
+    private static final String ENDPOINT = "/ws-relay";
+    private static final int MAX_TRACE_ID_LENGTH = 64;
     private final ObjectMapper objectMapper;
     private final MessageRelayService messageRelayService;
     private final UserStatusService userStatusService;
+    private final QueryMetrics queryMetrics;
+    private final HotPathLogger hotPathLogger;
+    private final DeliveryLatencyRecorder deliveryLatencyRecorder;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
@@ -38,7 +60,14 @@ public class MessageRelayHandler extends TextWebSocketHandler {
             log.info("WebSocket connection established for user: {}", userId);
 
             // Push pending messages to the user immediately upon connection
-            pushPendingMessages(userId, session);
+            queryMetrics.beginUnit();
+            putMdc(traceIdOrNew(stringAttribute(session, HANDSHAKE_TRACE_ID)));
+            try {
+                pushPendingMessages(userId, session);
+            } finally {
+                queryMetrics.endUnit("websocket", "CONNECT");
+                clearMdc();
+            }
         } else {
             session.close(CloseStatus.BAD_DATA);
         }
@@ -46,23 +75,49 @@ public class MessageRelayHandler extends TextWebSocketHandler {
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        FlightEvents.RelayFrame event = new FlightEvents.RelayFrame();
+        event.begin();
         WSMessage wsMsg = objectMapper.readValue(message.getPayload(), WSMessage.class);
         Long senderId = getUserId(session);
 
         if (senderId == null)
             return;
 
-        switch (wsMsg.getType()) {
-            case "MESSAGE" -> handleIncomingMessage(senderId, wsMsg.getPayload());
-            case "DELIVERY_ACK" -> handleDeliveryAck(senderId, wsMsg.getPayload());
-            default -> log.warn("Unknown message type: {}", wsMsg.getType());
+        queryMetrics.beginUnit();
+        putMdc(traceIdOrNew(wsMsg.getTraceId()));
+        try {
+            switch (wsMsg.getType()) {
+                case "MESSAGE" -> handleIncomingMessage(senderId, wsMsg);
+                case "DELIVERY_ACK" -> handleDeliveryAck(senderId, wsMsg.getPayload());
+                default -> log.warn("Unknown message type: {}", wsMsg.getType());
+            }
+        } finally {
+            // Client-supplied type: only known ones become tag values
+            String frame = "MESSAGE".equals(wsMsg.getType()) || "DELIVERY_ACK".equals(wsMsg.getType())
+                    ? wsMsg.getType() : "UNKNOWN";
+            queryMetrics.endUnit("websocket", frame);
+            event.end();
+            if (event.shouldCommit()) {
+                event.frameType = frame;
+                event.senderId = senderId;
+                event.payloadLength = message.getPayloadLength();
+                event.traceId = MDC.get(MDC_TRACE_ID);
+                event.commit();
+            }
+            clearMdc();
         }
     }
 
-    private void handleIncomingMessage(Long senderId, String payloadJson) throws IOException {
+    private void handleIncomingMessage(Long senderId, WSMessage wsMsg) throws IOException {
+        String payloadJson = wsMsg.getPayload();
         MessagePayload payload = objectMapper.readValue(payloadJson, MessagePayload.class);
         payload.setSenderId(senderId);
 
+        // Older clients only set it in the payload; the envelope wins if both are present
+        String traceId = wsMsg.getTraceId() != null ? MDC.get(MDC_TRACE_ID) : traceIdOrNew(payload.getTraceId());
+        MDC.put(MDC_TRACE_ID, traceId);
+        payload.setTraceId(traceId);
+
         WebSocketSession recipientSession = sessions.get(payload.getRecipientId());
 
         if (recipientSession != null && recipientSession.isOpen()) {
@@ -70,9 +125,12 @@ public class MessageRelayHandler extends TextWebSocketHandler {
             WSMessage relayMsg = WSMessage.builder()
                     .type("MESSAGE")
                     .payload(payloadJson)
+                    .traceId(traceId)
                     .build();
             recipientSession.sendMessage(new TextMessage(objectMapper.writeValueAsString(relayMsg)));
-            log.info("Relayed message {} directly to online recipient {}", payload.getMessageId(),
+            deliveryLatencyRecorder.record(DeliveryLatencyRecorder.Stage.RELAY, payload.getTimestamp());
+            hotPathLogger.info(log, "relay.direct", senderId, payload.getRecipientId(),
+                    "Relayed message {} directly to online recipient {}", payload.getMessageId(),
                     payload.getRecipientId());
         } else {
             // Recipient offline: Delegate to service (MySQL + Push)
@@ -92,7 +150,11 @@ public class MessageRelayHandler extends TextWebSocketHandler {
     }
 
     private void pushPendingMessages(Long userId, WebSocketSession session) throws IOException {
+        String connectTraceId = MDC.get(MDC_TRACE_ID);
         messageRelayService.getPendingMessages(userId).forEach(msg -> {
+            // Each replayed message is logged under the trace id it was sent with
+            String traceId = msg.getTraceId() != null ? msg.getTraceId() : connectTraceId;
+            MDC.put(MDC_TRACE_ID, traceId);
             try {
                 MessagePayload payload = MessagePayload.builder()
                         .messageId(msg.getMessageId())
@@ -100,20 +162,58 @@ public class MessageRelayHandler extends TextWebSocketHandler {
                         .recipientId(msg.getRecipientId())
                         .encryptedContent(msg.getEncryptedContent())
                         .type(msg.getMessageType())
-                        .timestamp(
-                                msg.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli())
+                        .timestamp(sentAt(msg))
+                        .traceId(traceId)
                         .build();
 
                 WSMessage wsMsg = WSMessage.builder()
                         .type("MESSAGE")
                         .payload(objectMapper.writeValueAsString(payload))
+                        .traceId(traceId)
                         .build();
 
                 session.sendMessage(new TextMessage(objectMapper.writeValueAsString(wsMsg)));
+                deliveryLatencyRecorder.record(DeliveryLatencyRecorder.Stage.REPLAY, msg.getSentAt());
             } catch (IOException e) {
                 log.error("Failed to push pending message {} to user {}", msg.getMessageId(), userId, e);
             }
         });
+        MDC.put(MDC_TRACE_ID, connectTraceId);
+    }
+
+    // Sender's timestamp when known; rows stored before it was kept fall back to the store time
+    private long sentAt(PendingMessage msg) {
+        if (msg.getSentAt() != null) {
+            return msg.getSentAt();
+        }
+        return msg.getCreatedAt().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void putMdc(String traceId) {
+        MDC.put(MDC_TRACE_ID, traceId);
+        MDC.put(MDC_ENDPOINT, ENDPOINT);
+    }
+
+    private void clearMdc() {
+        MDC.remove(MDC_TRACE_ID);
+        MDC.remove(MDC_ENDPOINT);
+    }
+
+    /**
+     * Client-supplied trace id, bounded to fit the trace_id columns, or a new
+     * one if the client sent none
+     */
+    private static String traceIdOrNew(String traceId) {
+        if (traceId == null || traceId.isBlank()) {
+            return UUID.randomUUID().toString();
+        }
+        String trimmed = traceId.trim();
+        return trimmed.length() > MAX_TRACE_ID_LENGTH ? trimmed.substring(0, MAX_TRACE_ID_LENGTH) : trimmed;
+    }
+
+    private static String stringAttribute(WebSocketSession session, String name) {
+        Object value = session.getAttributes().get(name);
+        return value instanceof String ? (String) value : null;
     }
 
     @Override
@@ -1,10 +1,11 @@
 package com.takeone.backend.websocket;
 
-import com.takeone.backend.entity.Session;
+import com.takeone.backend.dto.SessionAuthInfo;
 import com.takeone.backend.service.SessionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.MDC;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
@@ -34,11 +35,16 @@ public class WebSocketAuthInterceptor implements HandshakeInterceptor {
 
             if (token != null) {
                 try {
-                    Session session = sessionService.validateAndRefreshSession(token,
+                    SessionAuthInfo session = sessionService.validateAndRefreshSession(token,
                             servletRequest.getServletRequest());
-                    if (session != null && session.isValid() && session.getUser() != null) {
-                        attributes.put("userId", session.getUser().getId());
-                        log.debug("WebSocket handshake authenticated for user: {}", session.getUser().getId());
+                    if (session != null && !session.isExpired()) {
+                        attributes.put("userId", session.getUserId());
+                        // X-Trace-Id of the handshake, set by RequestTraceFilter
+                        String traceId = MDC.get("traceId");
+                        if (traceId != null) {
+                            attributes.put(MessageRelayHandler.HANDSHAKE_TRACE_ID, traceId);
+                        }
+                        log.debug("WebSocket handshake authenticated for user: {}", session.getUserId());
                         return true;
                     }
                 } catch (Exception e) {
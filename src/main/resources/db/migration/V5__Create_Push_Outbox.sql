@@ -0,0 +1,20 @@
+-- Transactional outbox for new-message push notifications
+-- Rows are written in the same transaction as the pending message and sent by PushOutboxDispatcher
+CREATE TABLE push_outbox
+(
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient_id    BIGINT       NOT NULL,
+    sender_id       BIGINT       NOT NULL COMMENT 'Sender of the latest coalesced message',
+    message_id      VARCHAR(36)  NOT NULL COMMENT 'Latest coalesced message UUID',
+    message_count   INT          NOT NULL DEFAULT 1 COMMENT 'Messages collapsed into this push',
+    coalesce_key    BIGINT COMMENT 'recipient_id while the row is open for coalescing, NULL once claimed',
+    status          VARCHAR(20)  NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING, IN_FLIGHT, SENT, DEAD',
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(3)  NOT NULL COMMENT 'Earliest dispatch time, or lease expiry while IN_FLIGHT',
+    last_error      VARCHAR(500),
+    created_at      DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at      DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Constraints and Indexes
+    UNIQUE KEY uk_outbox_coalesce (coalesce_key),
+    INDEX idx_outbox_due (status, next_attempt_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Outbox for push notifications';
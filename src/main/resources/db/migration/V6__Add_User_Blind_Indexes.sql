@@ -0,0 +1,17 @@
+-- Keyed HMAC-SHA256 blind indexes for equality lookups on encrypted email and mobile
+-- Maintained by the User entity on write; existing rows are filled by BlindIndexBackfillScheduler
+ALTER TABLE users
+    ADD COLUMN email_bidx  CHAR(64) COMMENT 'HMAC-SHA256 of normalized email',
+    ADD COLUMN mobile_bidx CHAR(64) COMMENT 'HMAC-SHA256 of normalized mobile',
+    ADD INDEX idx_email_bidx (email_bidx),
+    ADD INDEX idx_mobile_bidx (mobile_bidx);
+
+-- Progress of resumable background jobs (backfills, re-encryption)
+CREATE TABLE job_checkpoints
+(
+    job_name   VARCHAR(100) PRIMARY KEY,
+    last_id    BIGINT       NOT NULL DEFAULT 0 COMMENT 'Highest primary key processed',
+    processed  BIGINT       NOT NULL DEFAULT 0 COMMENT 'Rows processed so far',
+    completed  BOOLEAN      NOT NULL DEFAULT FALSE,
+    updated_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Background job checkpoints';
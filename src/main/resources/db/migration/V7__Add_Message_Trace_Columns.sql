@@ -0,0 +1,10 @@
+-- Correlation and latency data carried with relayed messages
+-- trace_id: X-Trace-Id / relay envelope trace id of the message
+-- sent_at: sender's MessagePayload.timestamp (epoch ms), for end-to-end delivery latency
+ALTER TABLE pending_messages
+    ADD COLUMN trace_id VARCHAR(64) NULL COMMENT 'Trace id of the relayed message',
+    ADD COLUMN sent_at  BIGINT      NULL COMMENT 'Sender timestamp (epoch ms)';
+
+ALTER TABLE push_outbox
+    ADD COLUMN trace_id      VARCHAR(64) NULL COMMENT 'Trace id of the latest coalesced message',
+    ADD COLUMN first_sent_at BIGINT      NULL COMMENT 'Sender timestamp of the oldest coalesced message (epoch ms)';
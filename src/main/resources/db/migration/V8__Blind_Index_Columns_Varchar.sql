@@ -0,0 +1,5 @@
+-- Blind indexes as VARCHAR(64) like username_hash, matching the entity mapping
+-- (CHAR(64) from V6 fails Hibernate schema validation)
+ALTER TABLE users
+    MODIFY COLUMN email_bidx  VARCHAR(64) COMMENT 'HMAC-SHA256 of normalized email',
+    MODIFY COLUMN mobile_bidx VARCHAR(64) COMMENT 'HMAC-SHA256 of normalized mobile';